@@ -0,0 +1,118 @@
+package ru.mirea.newrav1k.accountservice.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Один писатель на ключ: у каждого ключа очередь, которую разбирает не более одного потока.
+// Пока пачка применяется, новые элементы копятся и уходят следующей пачкой
+@Slf4j
+public class KeyedBatchExecutor<K, T> implements DisposableBean {
+
+    private final ConcurrentHashMap<K, Mailbox<T>> mailboxes = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final int maxBatchSize;
+
+    private final BatchHandler<K, T> batchHandler;
+
+    public KeyedBatchExecutor(String name, int workers, boolean virtualThreads, int maxBatchSize,
+                              BatchHandler<K, T> batchHandler) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name(name + "-", 1).factory()
+                : Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+        this.executor = Executors.newFixedThreadPool(workers, threadFactory);
+        this.maxBatchSize = maxBatchSize;
+        this.batchHandler = batchHandler;
+    }
+
+    public CompletableFuture<Void> submit(K key, T item) {
+        Pending<T> pending = new Pending<>(item, new CompletableFuture<>());
+        boolean[] startDrain = new boolean[1];
+        // compute по ключу выполняется атомарно, поэтому очередь и флаг разбора меняются без отдельной блокировки
+        this.mailboxes.compute(key, (k, mailbox) -> {
+            Mailbox<T> target = mailbox != null ? mailbox : new Mailbox<>();
+            target.pending.add(pending);
+            if (!target.draining) {
+                target.draining = true;
+                startDrain[0] = true;
+            }
+            return target;
+        });
+        if (startDrain[0]) {
+            this.executor.execute(() -> drain(key));
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdown();
+    }
+
+    private void drain(K key) {
+        while (true) {
+            List<Pending<T>> batch = new ArrayList<>();
+            // Пустой ящик удаляется, и следующий submit по ключу запустит разбор заново
+            this.mailboxes.computeIfPresent(key, (k, mailbox) -> {
+                while (batch.size() < this.maxBatchSize && !mailbox.pending.isEmpty()) {
+                    batch.add(mailbox.pending.poll());
+                }
+                return batch.isEmpty() ? null : mailbox;
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            complete(key, batch);
+        }
+    }
+
+    private void complete(K key, List<Pending<T>> batch) {
+        List<T> items = batch.stream().map(Pending::item).toList();
+        try {
+            List<? extends RuntimeException> failures = this.batchHandler.handle(key, items);
+            for (int i = 0; i < batch.size(); i++) {
+                RuntimeException failure = failures.get(i);
+                if (failure == null) {
+                    batch.get(i).future.complete(null);
+                } else {
+                    batch.get(i).future.completeExceptionally(failure);
+                }
+            }
+        } catch (Exception exception) {
+            log.error("Failed to apply batch of {} items for key {}", batch.size(), key, exception);
+            batch.forEach(pending -> pending.future.completeExceptionally(exception));
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchHandler<K, T> {
+
+        // Ошибки по позициям пачки; null - элемент применён
+        List<? extends RuntimeException> handle(K key, List<T> items);
+
+    }
+
+    private record Pending<T>(T item, CompletableFuture<Void> future) {
+
+    }
+
+    private static final class Mailbox<T> {
+
+        private final Queue<Pending<T>> pending = new ArrayDeque<>();
+
+        private boolean draining;
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.mirea.newrav1k.accountservice.configuration;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.mirea.newrav1k.accountservice.concurrent.KeyedBatchExecutor;
+import ru.mirea.newrav1k.accountservice.configuration.properties.BalanceWriterProperties;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceDelta;
+import ru.mirea.newrav1k.accountservice.service.BalanceBatchService;
+
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(BalanceWriterProperties.class)
+public class BalanceWriterConfiguration {
+
+    // Каждый разбор держит соединение на время пачки, поэтому число писателей не должно превышать пул Hikari
+    @Bean
+    public KeyedBatchExecutor<UUID, BalanceDelta> balanceWriter(BalanceWriterProperties properties,
+                                                                BalanceBatchService balanceBatchService,
+                                                                Environment environment) {
+        return new KeyedBatchExecutor<>(
+                "balance-writer",
+                properties.workers(),
+                Threading.VIRTUAL.isActive(environment),
+                properties.maxBatchSize(),
+                balanceBatchService::applyDeltas
+        );
+    }
+
+}
\ No newline at end of file
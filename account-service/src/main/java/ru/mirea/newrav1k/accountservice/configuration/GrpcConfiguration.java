@@ -0,0 +1,40 @@
+package ru.mirea.newrav1k.accountservice.configuration;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.mirea.newrav1k.accountservice.configuration.properties.GrpcServerProperties;
+import ru.mirea.newrav1k.accountservice.controller.grpc.AccountBalanceGrpcService;
+import ru.mirea.newrav1k.accountservice.security.interceptor.HeaderAuthenticationInterceptor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Внутренний HTTP/2-эндпоинт для операций с балансом; REST-методы остаются для Feign-клиентов
+@Configuration
+@EnableConfigurationProperties(GrpcServerProperties.class)
+@ConditionalOnProperty(prefix = "account-service.grpc", name = "enabled", havingValue = "true")
+public class GrpcConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public Server grpcServer(GrpcServerProperties properties, AccountBalanceGrpcService accountBalanceGrpcService,
+                             HeaderAuthenticationInterceptor headerAuthenticationInterceptor, Environment environment) {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(properties.port())
+                .addService(ServerInterceptors.intercept(accountBalanceGrpcService, headerAuthenticationInterceptor))
+                .maxConcurrentCallsPerConnection(properties.maxConcurrentCallsPerConnection())
+                .permitKeepAliveTime(properties.permitKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                .permitKeepAliveWithoutCalls(true);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Вызов блокируется на JDBC под пессимистичной блокировкой счёта, виртуальный поток на вызов дешевле пула
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        return builder.build();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.accountservice.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.mirea.newrav1k.accountservice.configuration.properties.LedgerProperties;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(LedgerProperties.class)
+public class LedgerConfiguration {
+
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.TimeoutOptions;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,17 +18,29 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
+import ru.mirea.newrav1k.accountservice.configuration.properties.AccountCacheProperties;
+import ru.mirea.newrav1k.accountservice.model.dto.AccountResponse;
+import ru.mirea.newrav1k.core.cache.CacheInvalidationListener;
+import ru.mirea.newrav1k.core.cache.CacheInvalidationPublisher;
+import ru.mirea.newrav1k.core.cache.TwoLevelCacheManager;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(AccountCacheProperties.class)
 public class RedisConfiguration {
 
+    public static final String ACCOUNT_DETAILS_CACHE = "account-details";
+
     @Value("${spring.data.redis.host}")
     private String host;
 
@@ -57,26 +70,66 @@ public class RedisConfiguration {
         return new LettuceConnectionFactory(configuration, clientConfiguration);
     }
 
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 ObjectMapper objectMapper,
+                                                                 AccountCacheProperties cacheProperties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, objectMapper, cacheProperties.invalidationChannel());
+    }
+
     @Bean
     @Primary
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory, Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer,
+                                             ObjectMapper objectMapper,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             AccountCacheProperties cacheProperties) {
         RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.string()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jackson2JsonRedisSerializer))
                 .computePrefixWith(cacheName -> "account-service:" + cacheName + ":")
                 .disableCachingNullValues();
 
+        // Типизированный сериализатор: из Redis читается AccountResponse, а не LinkedHashMap
         Map<String, RedisCacheConfiguration> redisCacheConfigurations = Map.of(
-                "account-details", RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(Duration.ofMinutes(30L))
+                ACCOUNT_DETAILS_CACHE, redisCacheConfiguration
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                new Jackson2JsonRedisSerializer<>(objectMapper, AccountResponse.class)))
+                        .entryTtl(cacheProperties.remoteTtl())
         );
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(redisCacheConfiguration)
                 .withInitialCacheConfigurations(redisCacheConfigurations)
-                .transactionAware()
                 .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Горячие чтения деталей счёта обслуживаются из памяти экземпляра; Redis остаётся общим вторым уровнем
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                redisCacheManager,
+                cacheInvalidationPublisher,
+                List.of(ACCOUNT_DETAILS_CACHE),
+                cacheProperties.localMaximumSize(),
+                cacheProperties.localTtl()
+        );
+        // Кэш наполняется и очищается только после коммита, иначе параллельное чтение вернёт в кэш старое значение
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                                            ObjectMapper objectMapper,
+                                                                            AccountCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, objectMapper, cacheInvalidationPublisher.getInstanceId()),
+                new ChannelTopic(cacheProperties.invalidationChannel()));
+        return container;
     }
 
     @Bean
@@ -0,0 +1,22 @@
+package ru.mirea.newrav1k.accountservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.mirea.newrav1k.core.concurrent.VirtualThreadPinningMonitor;
+
+import java.time.Duration;
+
+// Запросы Tomcat, @Async и @Scheduled переводятся на виртуальные потоки свойством spring.threads.virtual.enabled
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadingConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(@Value("${account-service.threading.pinned-threshold:20ms}") Duration pinnedThreshold) {
+        return new VirtualThreadPinningMonitor(pinnedThreshold);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.mirea.newrav1k.accountservice.configuration.properties;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "account-service.cache")
+public record AccountCacheProperties(
+        @Positive long localMaximumSize,
+        @NotNull Duration localTtl,
+        @NotNull Duration remoteTtl,
+        @NotBlank String invalidationChannel
+) {
+
+}
\ No newline at end of file
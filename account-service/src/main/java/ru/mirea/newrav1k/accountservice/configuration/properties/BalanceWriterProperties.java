@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.accountservice.configuration.properties;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "account-service.balance-writer")
+public record BalanceWriterProperties(
+        @Positive int workers,
+        @Positive int maxBatchSize,
+        @Positive int maxAttempts
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.mirea.newrav1k.accountservice.configuration.properties;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "account-service.grpc")
+public record GrpcServerProperties(
+        boolean enabled,
+        @Positive int port,
+        @Positive int maxConcurrentCallsPerConnection,
+        @NotNull Duration permitKeepAliveTime
+) {
+
+}
\ No newline at end of file
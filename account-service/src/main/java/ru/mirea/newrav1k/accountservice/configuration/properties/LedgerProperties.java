@@ -0,0 +1,16 @@
+package ru.mirea.newrav1k.accountservice.configuration.properties;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "account-service.ledger")
+public record LedgerProperties(
+        @NotNull Duration snapshotInterval,
+        @NotNull Duration snapshotLag
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package ru.mirea.newrav1k.accountservice.controller.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.accountservice.exception.AccountServiceException;
+import ru.mirea.newrav1k.accountservice.security.HeaderAuthenticationDetails;
+import ru.mirea.newrav1k.accountservice.security.interceptor.HeaderAuthenticationInterceptor;
+import ru.mirea.newrav1k.accountservice.service.BalanceOperationService;
+import ru.mirea.newrav1k.core.grpc.GrpcMetadata;
+import ru.mirea.newrav1k.core.grpc.account.AccountBalanceServiceGrpc;
+import ru.mirea.newrav1k.core.grpc.account.BalanceOperationReply;
+import ru.mirea.newrav1k.core.grpc.account.TransferFundsRequest;
+import ru.mirea.newrav1k.core.grpc.account.UpdateBalanceRequest;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static ru.mirea.newrav1k.core.grpc.ProtoConverters.fromProto;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBalanceGrpcService extends AccountBalanceServiceGrpc.AccountBalanceServiceImplBase {
+
+    private static final BalanceOperationReply REPLY = BalanceOperationReply.getDefaultInstance();
+
+    private final BalanceOperationService balanceOperationService;
+
+    private final MessageSource messageSource;
+
+    @Override
+    public void updateBalance(UpdateBalanceRequest request, StreamObserver<BalanceOperationReply> responseObserver) {
+        UUID accountId = fromProto(request.getAccountId());
+        UUID transactionId = fromProto(request.getTransactionId());
+        log.info("gRPC request to update account balance: accountId={}, transactionId={}", accountId, transactionId);
+        execute(responseObserver, trackerId ->
+                this.balanceOperationService.updateBalance(trackerId, accountId, transactionId, fromProto(request.getAmount())));
+    }
+
+    @Override
+    public void transferFunds(TransferFundsRequest request, StreamObserver<BalanceOperationReply> responseObserver) {
+        UUID fromAccountId = fromProto(request.getFromAccountId());
+        UUID toAccountId = fromProto(request.getToAccountId());
+        log.info("gRPC request to transfer: fromAccountId={}, toAccountId={}", fromAccountId, toAccountId);
+        execute(responseObserver, trackerId ->
+                this.balanceOperationService.transferFunds(trackerId, fromAccountId, toAccountId,
+                        fromProto(request.getTransactionId()), fromProto(request.getAmount())));
+    }
+
+    private void execute(StreamObserver<BalanceOperationReply> responseObserver, Consumer<UUID> operation) {
+        Authentication authentication = HeaderAuthenticationInterceptor.AUTHENTICATION.get();
+        if (authentication == null) {
+            responseObserver.onError(Status.UNAUTHENTICATED.withDescription("Missing tracker metadata").asRuntimeException());
+            return;
+        }
+        // @PreAuthorize в BalanceOperationService читает SecurityContextHolder текущего потока
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            operation.accept(((HeaderAuthenticationDetails) authentication.getPrincipal()).getTrackerId());
+            responseObserver.onNext(REPLY);
+            responseObserver.onCompleted();
+        } catch (AccountServiceException exception) {
+            String message = this.messageSource.getMessage(exception.getMessage(), new Object[0], exception.getMessage(), Locale.getDefault());
+            responseObserver.onError(toStatus(exception.getHttpStatus()).withDescription(message)
+                    .asRuntimeException(httpStatusTrailers(exception.getHttpStatus())));
+        } catch (AuthenticationException exception) {
+            responseObserver.onError(Status.UNAUTHENTICATED.withDescription(exception.getMessage())
+                    .asRuntimeException(httpStatusTrailers(HttpStatus.UNAUTHORIZED)));
+        } catch (AccessDeniedException exception) {
+            responseObserver.onError(Status.PERMISSION_DENIED.withDescription(exception.getMessage())
+                    .asRuntimeException(httpStatusTrailers(HttpStatus.FORBIDDEN)));
+        } catch (Exception exception) {
+            log.error("Unexpected error in gRPC balance operation", exception);
+            responseObserver.onError(Status.INTERNAL.withDescription(exception.getMessage()).withCause(exception).asRuntimeException());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static Status toStatus(HttpStatus httpStatus) {
+        return switch (httpStatus) {
+            case BAD_REQUEST -> Status.INVALID_ARGUMENT;
+            case UNAUTHORIZED -> Status.UNAUTHENTICATED;
+            case FORBIDDEN -> Status.PERMISSION_DENIED;
+            case NOT_FOUND -> Status.NOT_FOUND;
+            case CONFLICT -> Status.FAILED_PRECONDITION;
+            default -> Status.INTERNAL;
+        };
+    }
+
+    private static Metadata httpStatusTrailers(HttpStatus httpStatus) {
+        Metadata trailers = new Metadata();
+        trailers.put(GrpcMetadata.HTTP_STATUS, String.valueOf(httpStatus.value()));
+        return trailers;
+    }
+
+}
\ No newline at end of file
@@ -32,16 +32,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.mirea.newrav1k.accountservice.model.dto.AccountBalanceResponse;
 import ru.mirea.newrav1k.accountservice.model.dto.AccountCreateRequest;
 import ru.mirea.newrav1k.accountservice.model.dto.AccountFilter;
 import ru.mirea.newrav1k.accountservice.model.dto.AccountResponse;
 import ru.mirea.newrav1k.accountservice.model.dto.AccountUpdateRequest;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceBatchUpdateRequest;
 import ru.mirea.newrav1k.accountservice.security.HeaderAuthenticationDetails;
 import ru.mirea.newrav1k.accountservice.service.AccountCommandService;
 import ru.mirea.newrav1k.accountservice.service.AccountQueryService;
 import ru.mirea.newrav1k.accountservice.service.BalanceOperationService;
+import ru.mirea.newrav1k.accountservice.service.LedgerService;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 @Tag(name = "Account Controller",
@@ -59,6 +63,8 @@ public class AccountController {
 
     private final AccountQueryService accountQueryService;
 
+    private final LedgerService ledgerService;
+
     @Operation(summary = "Загрузка аккаунтов",
             description = """
                     Загружает список всех аккаунтов с возможностью фильтрации.
@@ -111,6 +117,32 @@ public class AccountController {
         return ResponseEntity.ok(account);
     }
 
+    @Operation(summary = "Баланс аккаунта на момент времени",
+            description = """
+                    Возвращает баланс аккаунта на указанный момент по журналу проводок:
+                    последний снимок баланса не позже момента плюс проводки после него.
+                    Без параметра asOf возвращается текущий баланс.
+                    Доступно только для аутентифицированных пользователей.""",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Баланс успешно рассчитан"),
+                    @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован или аккаунт ему не принадлежит")
+            },
+            parameters = {
+                    @Parameter(name = "accountId", description = "Идентификатор аккаунта",
+                            example = "48c6cc60-cea6-4872-9333-634516e9e66f", in = ParameterIn.PATH),
+                    @Parameter(name = "asOf", description = "Момент времени (включительно)",
+                            example = "2025-06-30T23:59:59Z", in = ParameterIn.QUERY)
+            }
+    )
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<AccountBalanceResponse> getAccountBalance(@AuthenticationPrincipal HeaderAuthenticationDetails authentication,
+                                                                    @PathVariable("accountId") UUID accountId,
+                                                                    @RequestParam(value = "asOf", required = false) Instant asOf) {
+        log.info("Request to get account balance: accountId={}, asOf={}", accountId, asOf);
+        AccountBalanceResponse balance = this.ledgerService.getBalanceAsOf(authentication.getTrackerId(), accountId, asOf);
+        return ResponseEntity.ok(balance);
+    }
+
     @Operation(summary = "Создание аккаунта",
             description = """
                     Создает новый аккаунт для пользователя.
@@ -284,6 +316,37 @@ public class AccountController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Пакетное обновление балансов аккаунтов",
+            description = """
+                    Применяет пакет изменений балансов (accountId, transactionId, amount) в одной транзакции.
+                    
+                    **Особенности:**
+                            - Все затронутые аккаунты блокируются одним запросом в порядке идентификаторов
+                            - Уже применённые transactionId отсеиваются одним запросом и пропускаются
+                            - Операции сохраняются пакетными INSERT-ами JDBC
+                            - Ошибка любого изменения откатывает весь пакет
+                    
+                    Доступно только для аутентифицированных пользователей.""",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Балансы аккаунтов успешно обновились"),
+                    @ApiResponse(responseCode = "400", description = "Ошибка валидации пакета"),
+                    @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован или один из аккаунтов ему не принадлежит"),
+                    @ApiResponse(responseCode = "409", description = "Недостаточно средств или кредитного лимита на одном из аккаунтов")
+            },
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Пакет изменений балансов",
+                    required = true,
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BalanceBatchUpdateRequest.class))
+            )
+    )
+    @PostMapping("/balance-updates")
+    public ResponseEntity<Void> updateAccountBalances(@Valid @RequestBody BalanceBatchUpdateRequest request,
+                                                      @AuthenticationPrincipal HeaderAuthenticationDetails authentication) {
+        log.info("Request to update account balances: size={}", request.updates().size());
+        this.balanceOperationService.updateBalances(authentication.getTrackerId(), request.updates());
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Перевод денег на другой аккаунт пользователя",
             description = """
                     Переводит деньги пользователя с одного аккаунта на другой аккаунт.
@@ -0,0 +1,14 @@
+package ru.mirea.newrav1k.accountservice.model.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record AccountBalanceResponse(
+        UUID accountId,
+        BigDecimal balance,
+        Instant asOf
+) implements Serializable {
+
+}
\ No newline at end of file
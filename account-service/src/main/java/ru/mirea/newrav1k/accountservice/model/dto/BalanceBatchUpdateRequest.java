@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.accountservice.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BalanceBatchUpdateRequest(
+        @NotEmpty(message = "error.balance_update_batch_is_empty")
+        @Size(max = 5000, message = "error.balance_update_batch_size_is_invalid")
+        List<@Valid BalanceUpdateRequest> updates
+) {
+
+}
\ No newline at end of file
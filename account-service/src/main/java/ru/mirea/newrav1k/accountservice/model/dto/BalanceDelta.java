@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.accountservice.model.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record BalanceDelta(
+        UUID trackerId,
+        UUID accountId,
+        UUID transactionId,
+        BigDecimal amount
+) {
+
+}
\ No newline at end of file
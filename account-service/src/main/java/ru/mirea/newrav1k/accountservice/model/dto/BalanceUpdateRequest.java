@@ -0,0 +1,23 @@
+package ru.mirea.newrav1k.accountservice.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record BalanceUpdateRequest(
+        @Schema(description = "Идентификатор аккаунта", example = "48c6cc60-cea6-4872-9333-634516e9e66f", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "balance_update.account_id.null")
+        UUID accountId,
+
+        @Schema(description = "Идентификатор транзакции", example = "4ef81a12-7510-47d5-9ddf-b8642e4106d7", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "balance_update.transaction_id.null")
+        UUID transactionId,
+
+        @Schema(description = "Изменение баланса: положительное - пополнение, отрицательное - списание", example = "-1337", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "balance_update.amount.null")
+        BigDecimal amount
+) {
+
+}
\ No newline at end of file
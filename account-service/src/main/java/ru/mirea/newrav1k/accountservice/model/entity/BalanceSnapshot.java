@@ -0,0 +1,44 @@
+package ru.mirea.newrav1k.accountservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(
+        name = "t_balance_snapshots",
+        schema = "account_management",
+        indexes = {
+                @Index(name = "idx_balance_snapshot_account_as_of", columnList = "account_id, as_of"),
+                @Index(name = "idx_balance_snapshot_as_of", columnList = "as_of")
+        }
+)
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    // Снимок учитывает все проводки счёта с created_at <= asOf
+    @Column(name = "as_of", nullable = false)
+    private Instant asOf;
+
+    @Column(name = "balance", nullable = false, scale = 2, precision = 19)
+    private BigDecimal balance;
+
+}
\ No newline at end of file
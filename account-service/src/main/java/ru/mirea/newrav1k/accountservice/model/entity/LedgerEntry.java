@@ -0,0 +1,61 @@
+package ru.mirea.newrav1k.accountservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(
+        name = "t_ledger_entries",
+        schema = "account_management",
+        indexes = {
+                @Index(name = "idx_ledger_entry_account_created_at", columnList = "account_id, created_at"),
+                @Index(name = "idx_ledger_entry_created_at", columnList = "created_at"),
+                @Index(name = "idx_ledger_entry_transaction_id", columnList = "transaction_id")
+        }
+)
+public class LedgerEntry {
+
+    // Внешняя сторона проводок: пополнения и списания извне счетов сервиса. Сумма проводок одной операции всегда 0
+    public static final UUID EXTERNAL_ACCOUNT_ID = new UUID(0L, 0L);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    // Изменение баланса счёта со знаком
+    @Column(name = "amount", nullable = false, scale = 2, precision = 19)
+    private BigDecimal amount;
+
+    // Время начала транзакции в БД, а не часы экземпляра: по нему сжимаются снимки
+    @Column(name = "created_at", insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) with time zone not null default now()")
+    private Instant createdAt;
+
+    public LedgerEntry(UUID accountId, UUID transactionId, BigDecimal amount) {
+        this.accountId = accountId;
+        this.transactionId = transactionId;
+        this.amount = amount;
+    }
+
+}
\ No newline at end of file
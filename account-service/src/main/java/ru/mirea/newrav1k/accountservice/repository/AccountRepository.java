@@ -11,6 +11,9 @@ import org.springframework.util.StringUtils;
 import ru.mirea.newrav1k.accountservice.model.dto.AccountFilter;
 import ru.mirea.newrav1k.accountservice.model.entity.Account;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,8 +22,43 @@ import java.util.UUID;
 public interface AccountRepository extends JpaRepository<Account, UUID>, JpaSpecificationExecutor<Account> {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select a from Account a where a.id = :accountId and a.trackerId = :trackerId")
-    Optional<Account> findAccountByTrackerIdAndIdForPessimisticLock(UUID trackerId, UUID accountId);
+    @Query("select a from Account a where a.id = :accountId")
+    Optional<Account> findAccountByIdForPessimisticLock(UUID accountId);
+
+    // Строки блокируются в порядке сортировки по id (блокировка в Postgres снимается после ORDER BY),
+    // поэтому пересекающиеся наборы счетов не взаимоблокируются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.trackerId = :trackerId and a.id in :accountIds order by a.id")
+    List<Account> findAccountsByTrackerIdAndIdInForPessimisticLock(UUID trackerId, Collection<UUID> accountIds);
+
+    // Быстрый путь для некредитных счетов: проверки, изменение баланса и запись операции одним запросом без SELECT FOR UPDATE.
+    // Операция и пара проводок журнала (счёт и внешняя сторона, см. LedgerEntry.EXTERNAL_ACCOUNT_ID) вставляются
+    // только вместе с обновлённым счётом; повтор transactionId упадёт на первичном ключе
+    @Query(value = """
+            with updated as (
+                update account_management.t_accounts
+                set balance = balance + :amount, version = version + 1, updated_at = now()
+                where id = :accountId
+                  and tracker_id = :trackerId
+                  and type <> 'CREDIT_CARD'
+                  and active and not deleted
+                  and :amount <> 0
+                  and balance + :amount >= 0
+                  and not exists (select 1 from account_management.t_bank_operations where transaction_id = :transactionId)
+                returning id
+            ), inserted as (
+                insert into account_management.t_bank_operations (transaction_id, from_account_id, to_account_id, amount)
+                select :transactionId, id, null, :amount from updated
+                returning transaction_id
+            ), journal as (
+                insert into account_management.t_ledger_entries (id, account_id, transaction_id, amount)
+                select gen_random_uuid(), id, :transactionId, :amount from updated
+                union all
+                select gen_random_uuid(), cast('00000000-0000-0000-0000-000000000000' as uuid), :transactionId, -:amount from updated
+            )
+            select count(*) from inserted
+            """, nativeQuery = true)
+    long applyBalanceDeltaIfSufficient(UUID trackerId, UUID accountId, UUID transactionId, BigDecimal amount);
 
     Optional<Account> findAccountByTrackerIdAndId(UUID trackerId, UUID accountId);
 
@@ -0,0 +1,45 @@
+package ru.mirea.newrav1k.accountservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.mirea.newrav1k.accountservice.model.entity.BalanceSnapshot;
+
+import java.util.UUID;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, UUID> {
+
+    // Сжатие выполняет один экземпляр; остальные пропускают запуск, не дожидаясь блокировки
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('account-balance-snapshots'))", nativeQuery = true)
+    boolean tryLockCompaction();
+
+    // Каждый запуск снимает все счета с проводками после предыдущей границы, поэтому нижняя граница
+    // общая - max(as_of). Новый снимок = предыдущий снимок счёта + проводки в (max(as_of), now() - lag]
+    @Modifying
+    @Query(value = """
+            insert into account_management.t_balance_snapshots (id, account_id, as_of, balance)
+            select gen_random_uuid(), tail.account_id, bounds.cutoff, coalesce(previous.balance, 0) + tail.amount
+            from (
+                select now() - make_interval(secs => :lagSeconds) as cutoff,
+                       coalesce((select max(as_of) from account_management.t_balance_snapshots),
+                                cast('-infinity' as timestamptz)) as compacted
+            ) bounds
+            cross join lateral (
+                select e.account_id, sum(e.amount) as amount
+                from account_management.t_ledger_entries e
+                where e.created_at > bounds.compacted and e.created_at <= bounds.cutoff
+                group by e.account_id
+            ) tail
+            left join lateral (
+                select s.balance
+                from account_management.t_balance_snapshots s
+                where s.account_id = tail.account_id
+                order by s.as_of desc
+                limit 1
+            ) previous on true
+            """, nativeQuery = true)
+    int compactSnapshots(double lagSeconds);
+
+}
\ No newline at end of file
@@ -1,9 +1,12 @@
 package ru.mirea.newrav1k.accountservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.mirea.newrav1k.accountservice.model.entity.BankOperation;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -11,4 +14,7 @@ public interface BankOperationRepository extends JpaRepository<BankOperation, UU
 
     boolean existsByTransactionId(UUID transactionId);
 
+    @Query("select o.transactionId from BankOperation o where o.transactionId in :transactionIds")
+    Set<UUID> findTransactionIdsByTransactionIdIn(Collection<UUID> transactionIds);
+
 }
\ No newline at end of file
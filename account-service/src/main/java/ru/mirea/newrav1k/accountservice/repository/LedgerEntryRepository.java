@@ -0,0 +1,33 @@
+package ru.mirea.newrav1k.accountservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.mirea.newrav1k.accountservice.model.entity.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    // Баланс на момент времени: последний снимок не позже asOf плюс хвост журнала после него.
+    // Оба чтения идут по индексам (account_id, as_of) и (account_id, created_at)
+    @Query(value = """
+            with snapshot as (
+                select s.balance, s.as_of
+                from account_management.t_balance_snapshots s
+                where s.account_id = :accountId and s.as_of <= :asOf
+                order by s.as_of desc
+                limit 1
+            )
+            select coalesce((select balance from snapshot), 0) + coalesce(sum(e.amount), 0)
+            from account_management.t_ledger_entries e
+            where e.account_id = :accountId
+              and e.created_at <= :asOf
+              and e.created_at > coalesce((select as_of from snapshot), cast('-infinity' as timestamptz))
+            """, nativeQuery = true)
+    BigDecimal findBalanceByAccountIdAsOf(UUID accountId, Instant asOf);
+
+}
\ No newline at end of file
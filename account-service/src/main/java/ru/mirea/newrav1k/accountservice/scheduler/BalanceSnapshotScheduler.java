@@ -0,0 +1,26 @@
+package ru.mirea.newrav1k.accountservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.accountservice.service.LedgerService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceSnapshotScheduler {
+
+    private final LedgerService ledgerService;
+
+    @Scheduled(fixedDelayString = "${account-service.ledger.snapshot-interval}")
+    public void compactSnapshots() {
+        log.debug("Compacting balance snapshots");
+        try {
+            this.ledgerService.compactSnapshots();
+        } catch (Exception exception) {
+            log.error("Failed to compact balance snapshots", exception);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.mirea.newrav1k.accountservice.security.interceptor;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.accountservice.security.HeaderAuthenticationDetails;
+import ru.mirea.newrav1k.core.grpc.GrpcMetadata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Аналог HeaderAuthenticationFilter для gRPC: обработчики вызова выполняются в разных потоках,
+// поэтому аутентификация переносится в io.grpc.Context, а не в SecurityContextHolder
+@Slf4j
+@Component
+public class HeaderAuthenticationInterceptor implements ServerInterceptor {
+
+    public static final Context.Key<Authentication> AUTHENTICATION = Context.key("authentication");
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String trackerId = headers.get(GrpcMetadata.TRACKER_ID);
+        String trackerAuthorities = headers.get(GrpcMetadata.TRACKER_AUTHORITIES);
+        if (trackerId == null || trackerAuthorities == null) {
+            return next.startCall(call, headers);
+        }
+        try {
+            List<GrantedAuthority> authorities = Arrays.stream(trackerAuthorities.split(","))
+                    .map(String::trim)
+                    .filter(auth -> !auth.isEmpty())
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+            HeaderAuthenticationDetails details = new HeaderAuthenticationDetails(UUID.fromString(trackerId), authorities);
+            Context context = Context.current()
+                    .withValue(AUTHENTICATION, new UsernamePasswordAuthenticationToken(details, null, authorities));
+            return Contexts.interceptCall(context, call, headers, next);
+        } catch (Exception exception) {
+            log.error("Error while header authenticated", exception);
+            return next.startCall(call, headers);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+package ru.mirea.newrav1k.accountservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.accountservice.configuration.properties.BalanceWriterProperties;
+import ru.mirea.newrav1k.accountservice.exception.AccountAccessDeniedException;
+import ru.mirea.newrav1k.accountservice.exception.AccountServiceException;
+import ru.mirea.newrav1k.accountservice.exception.AccountValidationException;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceDelta;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceUpdateRequest;
+import ru.mirea.newrav1k.accountservice.model.entity.Account;
+import ru.mirea.newrav1k.accountservice.model.entity.BankOperation;
+import ru.mirea.newrav1k.accountservice.model.enums.AccountType;
+import ru.mirea.newrav1k.accountservice.repository.AccountRepository;
+import ru.mirea.newrav1k.accountservice.repository.BankOperationRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.mirea.newrav1k.accountservice.utils.MessageCode.INVALID_AMOUNT;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceBatchService {
+
+    private static final String ACCOUNT_DETAILS_CACHE = "account-details";
+
+    private final AccountRepository accountRepository;
+
+    private final BankOperationRepository bankOperationRepository;
+
+    private final LedgerService ledgerService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheManager cacheManager;
+
+    private final BalanceWriterProperties balanceWriterProperties;
+
+    private final Set<UUID> creditAccountIds = ConcurrentHashMap.newKeySet();
+
+    // Пачка изменений одного счёта применяется под одной блокировкой строки: одно чтение, один UPDATE
+    // и пакетная вставка операций. Отказ отдельного изменения (нехватка средств) не откатывает остальные
+    public List<RuntimeException> applyDeltas(UUID accountId, List<BalanceDelta> deltas) {
+        log.debug("Applying balance deltas: accountId={}, count={}", accountId, deltas.size());
+        // Одиночное изменение (счёт без конкуренции) сначала пробует условный UPDATE; пачку выгоднее
+        // применить под одной блокировкой, чем отдельным запросом на каждое изменение
+        if (deltas.size() == 1 && !this.creditAccountIds.contains(accountId) && applyFast(deltas.get(0))) {
+            evictAccountDetails(accountId, deltas);
+            return Collections.singletonList(null);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<RuntimeException> failures = this.transactionTemplate.execute(status -> applyLocked(accountId, deltas));
+                evictAccountDetails(accountId, deltas);
+                return failures;
+            } catch (OptimisticLockingFailureException exception) {
+                // Счёт мог изменить путь, не берущий блокировку (редактирование счёта); пачка перечитывается целиком
+                if (attempt >= this.balanceWriterProperties.maxAttempts()) {
+                    throw exception;
+                }
+                log.warn("Optimistic lock conflict on account {}, retrying batch (attempt {})", accountId, attempt);
+            }
+        }
+    }
+
+    // Пакет изменений разных счетов применяется в одной транзакции целиком: ошибка любого изменения откатывает весь пакет
+    public void applyBatch(UUID trackerId, List<BalanceUpdateRequest> updates) {
+        log.debug("Applying balance update batch: trackerId={}, size={}", trackerId, updates.size());
+        Set<UUID> accountIds = updates.stream()
+                .map(BalanceUpdateRequest::accountId)
+                .collect(Collectors.toSet());
+        this.transactionTemplate.executeWithoutResult(status -> applyBatchLocked(trackerId, accountIds, updates));
+        Cache cache = this.cacheManager.getCache(ACCOUNT_DETAILS_CACHE);
+        if (cache != null) {
+            accountIds.forEach(accountId -> {
+                cache.evict(accountId);
+                cache.evict(trackerId + "-" + accountId);
+            });
+        }
+    }
+
+    private void applyBatchLocked(UUID trackerId, Set<UUID> accountIds, List<BalanceUpdateRequest> updates) {
+        Map<UUID, Account> accounts = this.accountRepository.findAccountsByTrackerIdAndIdInForPessimisticLock(trackerId, accountIds)
+                .stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        if (accounts.size() != accountIds.size()) {
+            throw new AccountAccessDeniedException();
+        }
+
+        // Дубли отсеиваются одним IN-запросом после блокировки; повтор внутри пакета применяется один раз
+        Set<UUID> appliedIds = this.bankOperationRepository.findTransactionIdsByTransactionIdIn(
+                updates.stream().map(BalanceUpdateRequest::transactionId).toList());
+        List<BankOperation> operations = new ArrayList<>();
+        for (BalanceUpdateRequest update : updates) {
+            if (!appliedIds.add(update.transactionId())) {
+                log.info("Skipping update balance: transactionId={}, accountId={}", update.transactionId(), update.accountId());
+                continue;
+            }
+            if (update.amount().signum() == 0) {
+                throw new AccountValidationException(INVALID_AMOUNT);
+            }
+            Account account = Objects.requireNonNull(accounts.get(update.accountId()));
+            if (account.getType() == AccountType.CREDIT_CARD) {
+                this.creditAccountIds.add(account.getId());
+            }
+
+            BigDecimal balanceBefore = account.getBalance();
+            if (update.amount().signum() < 0) {
+                account.withdraw(update.amount().abs());
+            } else {
+                account.deposit(update.amount());
+            }
+            operations.add(new BankOperation(update.transactionId(), account.getId(), null, update.amount()));
+            this.ledgerService.record(update.transactionId(), Map.of(account.getId(), account.getBalance().subtract(balanceBefore)));
+        }
+        operations.forEach(this.entityManager::persist);
+        log.debug("Applied {} of {} balance updates to {} accounts", operations.size(), updates.size(), accounts.size());
+    }
+
+    private boolean applyFast(BalanceDelta delta) {
+        try {
+            Long applied = this.transactionTemplate.execute(status -> this.accountRepository.applyBalanceDeltaIfSufficient(
+                    delta.trackerId(), delta.accountId(), delta.transactionId(), delta.amount()));
+            return applied != null && applied > 0;
+        } catch (DataIntegrityViolationException exception) {
+            // Тот же transactionId вставил другой экземпляр; медленный путь увидит дубль и пропустит его
+            log.debug("Concurrent duplicate operation {} on fast path", delta.transactionId());
+            return false;
+        }
+    }
+
+    // Отказ быстрого пути (кредитная карта, нехватка средств, неактивный счёт, дубль) разбирается здесь
+    // с точной ошибкой для вызывающего
+    private List<RuntimeException> applyLocked(UUID accountId, List<BalanceDelta> deltas) {
+        List<RuntimeException> failures = new ArrayList<>(Collections.nCopies(deltas.size(), null));
+        Optional<Account> lockedAccount = this.accountRepository.findAccountByIdForPessimisticLock(accountId);
+        if (lockedAccount.isEmpty()) {
+            for (int i = 0; i < deltas.size(); i++) {
+                failures.set(i, new AccountAccessDeniedException());
+            }
+            return failures;
+        }
+        Account account = lockedAccount.get();
+        if (account.getType() == AccountType.CREDIT_CARD) {
+            // Тип счёта не меняется, поэтому следующие изменения кредитной карты сразу идут этим путём
+            this.creditAccountIds.add(accountId);
+        }
+
+        // Дубли проверяются после блокировки: операции другого экземпляра по этому счёту уже закоммичены
+        Set<UUID> appliedIds = this.bankOperationRepository.findTransactionIdsByTransactionIdIn(
+                deltas.stream().map(BalanceDelta::transactionId).toList());
+        List<BankOperation> operations = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            BalanceDelta delta = deltas.get(i);
+            if (!account.getTrackerId().equals(delta.trackerId())) {
+                failures.set(i, new AccountAccessDeniedException());
+                continue;
+            }
+            if (!appliedIds.add(delta.transactionId())) {
+                log.info("Skipping update balance: transactionId={}, accountId={}", delta.transactionId(), accountId);
+                continue;
+            }
+            try {
+                BigDecimal balanceBefore = account.getBalance();
+                if (delta.amount().signum() < 0) {
+                    account.withdraw(delta.amount().abs());
+                } else {
+                    account.deposit(delta.amount());
+                }
+                operations.add(new BankOperation(delta.transactionId(), accountId, null, delta.amount()));
+                this.ledgerService.record(delta.transactionId(), Map.of(accountId, account.getBalance().subtract(balanceBefore)));
+            } catch (AccountServiceException | IllegalArgumentException exception) {
+                // deposit/withdraw проверяют операцию до изменения баланса, поэтому счёт остаётся прежним
+                appliedIds.remove(delta.transactionId());
+                failures.set(i, exception);
+            }
+        }
+        // persist вместо saveAll: у BankOperation заданный id, и merge выполнил бы SELECT на каждую строку
+        operations.forEach(this.entityManager::persist);
+        log.debug("Applied {} of {} balance deltas to account {}", operations.size(), deltas.size(), accountId);
+        return failures;
+    }
+
+    private void evictAccountDetails(UUID accountId, List<BalanceDelta> deltas) {
+        Cache cache = this.cacheManager.getCache(ACCOUNT_DETAILS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(accountId);
+        deltas.stream()
+                .map(BalanceDelta::trackerId)
+                .distinct()
+                .forEach(trackerId -> cache.evict(trackerId + "-" + accountId));
+    }
+
+}
\ No newline at end of file
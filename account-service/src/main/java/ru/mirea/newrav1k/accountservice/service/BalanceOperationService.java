@@ -5,23 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.accountservice.concurrent.KeyedBatchExecutor;
 import ru.mirea.newrav1k.accountservice.exception.AccountAccessDeniedException;
 import ru.mirea.newrav1k.accountservice.exception.AccountTransferException;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceDelta;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceUpdateRequest;
 import ru.mirea.newrav1k.accountservice.model.entity.Account;
 import ru.mirea.newrav1k.accountservice.model.entity.BankOperation;
 import ru.mirea.newrav1k.accountservice.repository.AccountRepository;
 import ru.mirea.newrav1k.accountservice.repository.BankOperationRepository;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
@@ -32,34 +34,34 @@ public class BalanceOperationService {
 
     private final AccountRepository accountRepository;
 
+    private final LedgerService ledgerService;
+
+    private final BalanceBatchService balanceBatchService;
+
+    private final KeyedBatchExecutor<UUID, BalanceDelta> balanceWriter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Изменения одного счёта проходят через единственного писателя и применяются пачками,
+    // поэтому параллельные вызовы не выстраиваются в очередь на блокировке строки в Postgres
     @PreAuthorize("isAuthenticated()")
-    @Retryable(
-            retryFor = {
-                    ObjectOptimisticLockingFailureException.class,
-                    OptimisticLockingFailureException.class,
-                    DataIntegrityViolationException.class
-            }, backoff = @Backoff(value = 300, maxDelay = 2000, multiplier = 2),
-            maxAttempts = 5
-    )
-    @Caching(evict = {
-            @CacheEvict(value = "account-details", key = "#accountId"),
-            @CacheEvict(value = "account-details", key = "#trackerId + '-' + #accountId")
-    })
-    @Transactional
     public void updateBalance(UUID trackerId, UUID accountId, UUID transactionId, BigDecimal amount) {
         log.debug("Update account balance: trackerId={}, accountId={}, transactionId={}", trackerId, accountId, transactionId);
-        Account account = findAccountPessimisticByTrackerIdAndIdOrThrow(trackerId, accountId);
-        if (isDuplicateOperation(transactionId)) {
-            log.info("Skipping update balance: transactionId={}, accountId={}", transactionId, accountId);
-            return;
-        }
-        if (amount.signum() < 0) {
-            account.withdraw(amount.abs());
-        } else {
-            account.deposit(amount);
+        try {
+            this.balanceWriter.submit(accountId, new BalanceDelta(trackerId, accountId, transactionId, amount)).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
         }
-        this.accountRepository.save(account);
-        this.bankOperationRepository.save(new BankOperation(transactionId, accountId, null, amount));
+    }
+
+    // Пакет идёт мимо писателя по счетам: счета блокируются разом в порядке id и изменяются в одной транзакции
+    @PreAuthorize("isAuthenticated()")
+    public void updateBalances(UUID trackerId, List<BalanceUpdateRequest> updates) {
+        log.debug("Update account balances: trackerId={}, size={}", trackerId, updates.size());
+        this.balanceBatchService.applyBatch(trackerId, updates);
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -69,38 +71,53 @@ public class BalanceOperationService {
             @CacheEvict(value = "account-details", key = "#trackerId + '-' + #fromAccountId"),
             @CacheEvict(value = "account-details", key = "#trackerId + '-' + #toAccountId")
     })
-    @Transactional
     public void transferFunds(UUID trackerId, UUID fromAccountId, UUID toAccountId, UUID transactionId, BigDecimal amount) {
         log.debug("Transfer funds: trackerId={}, fromAccount={}, toAccount={}, transactionId={}",
                 trackerId, fromAccountId, toAccountId, transactionId);
+        if (fromAccountId.equals(toAccountId)) {
+            throw new AccountTransferException();
+        }
+        try {
+            this.transactionTemplate.executeWithoutResult(status ->
+                    transferLocked(trackerId, fromAccountId, toAccountId, transactionId, amount));
+        } catch (DataIntegrityViolationException exception) {
+            // Повтор по другой паре счетов не ждёт этих блокировок и упирается в первичный ключ операции при коммите:
+            // перевод уже применён параллельным вызовом, поэтому повтор завершается успешно
+            if (!isDuplicateOperation(transactionId)) {
+                throw exception;
+            }
+            log.info("Transfer already applied concurrently: transactionId={}", transactionId);
+        }
+    }
+
+    private void transferLocked(UUID trackerId, UUID fromAccountId, UUID toAccountId, UUID transactionId, BigDecimal amount) {
+        // Порядок блокировки общий с пакетным обновлением балансов, поэтому они не взаимоблокируются
+        List<Account> accounts = this.accountRepository.findAccountsByTrackerIdAndIdInForPessimisticLock(
+                trackerId, List.of(fromAccountId, toAccountId));
+        if (accounts.size() != 2) {
+            throw new AccountAccessDeniedException();
+        }
+        // Дубль проверяется после блокировки, как в applyLocked: повтор, ждавший эти счета, видит закоммиченную операцию
         if (isDuplicateOperation(transactionId)) {
             log.info("Skipping transfer due to duplicate operation: transactionId={}", transactionId);
             return;
         }
 
-        UUID firstAccountId = fromAccountId.compareTo(toAccountId) < 0 ? fromAccountId : toAccountId;
-        UUID secondAccountId = fromAccountId.compareTo(toAccountId) < 0 ? toAccountId : fromAccountId;
-
-        Account firstAccount = findAccountPessimisticByTrackerIdAndIdOrThrow(trackerId, firstAccountId);
-        Account secondAccount = findAccountPessimisticByTrackerIdAndIdOrThrow(trackerId, secondAccountId);
-
-        if (fromAccountId.equals(toAccountId)) {
-            throw new AccountTransferException();
-        }
-
-        Account fromAccount = firstAccount.getId().equals(fromAccountId) ? firstAccount : secondAccount;
-        Account toAccount = fromAccount == firstAccount ? secondAccount : firstAccount;
+        Account fromAccount = accounts.get(0).getId().equals(fromAccountId) ? accounts.get(0) : accounts.get(1);
+        Account toAccount = fromAccount == accounts.get(0) ? accounts.get(1) : accounts.get(0);
 
+        BigDecimal fromBalanceBefore = fromAccount.getBalance();
+        BigDecimal toBalanceBefore = toAccount.getBalance();
         fromAccount.withdraw(amount);
         toAccount.deposit(amount);
 
         this.accountRepository.saveAll(List.of(fromAccount, toAccount));
         this.bankOperationRepository.save(new BankOperation(transactionId, fromAccountId, toAccountId, amount));
-    }
 
-    private Account findAccountPessimisticByTrackerIdAndIdOrThrow(UUID trackerId, UUID accountId) {
-        return this.accountRepository.findAccountByTrackerIdAndIdForPessimisticLock(trackerId, accountId)
-                .orElseThrow(AccountAccessDeniedException::new);
+        Map<UUID, BigDecimal> balanceChanges = new LinkedHashMap<>();
+        balanceChanges.put(fromAccountId, fromAccount.getBalance().subtract(fromBalanceBefore));
+        balanceChanges.put(toAccountId, toAccount.getBalance().subtract(toBalanceBefore));
+        this.ledgerService.record(transactionId, balanceChanges);
     }
 
     private boolean isDuplicateOperation(UUID transactionId) {
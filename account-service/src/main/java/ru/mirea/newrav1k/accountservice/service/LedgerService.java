@@ -0,0 +1,75 @@
+package ru.mirea.newrav1k.accountservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mirea.newrav1k.accountservice.configuration.properties.LedgerProperties;
+import ru.mirea.newrav1k.accountservice.exception.AccountAccessDeniedException;
+import ru.mirea.newrav1k.accountservice.model.dto.AccountBalanceResponse;
+import ru.mirea.newrav1k.accountservice.model.entity.LedgerEntry;
+import ru.mirea.newrav1k.accountservice.repository.AccountRepository;
+import ru.mirea.newrav1k.accountservice.repository.BalanceSnapshotRepository;
+import ru.mirea.newrav1k.accountservice.repository.LedgerEntryRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private final AccountRepository accountRepository;
+
+    private final EntityManager entityManager;
+
+    private final LedgerProperties ledgerProperties;
+
+    // Вызывается в транзакции, изменившей балансы. Проводки только добавляются; разница, не попавшая
+    // на счета (погашение кредитного долга, внешнее пополнение), уходит на внешнюю сторону
+    public void record(UUID transactionId, Map<UUID, BigDecimal> balanceChanges) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<UUID, BigDecimal> change : balanceChanges.entrySet()) {
+            if (change.getValue().signum() != 0) {
+                this.entityManager.persist(new LedgerEntry(change.getKey(), transactionId, change.getValue()));
+                total = total.add(change.getValue());
+            }
+        }
+        if (total.signum() != 0) {
+            this.entityManager.persist(new LedgerEntry(LedgerEntry.EXTERNAL_ACCOUNT_ID, transactionId, total.negate()));
+        }
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @Transactional(readOnly = true)
+    public AccountBalanceResponse getBalanceAsOf(UUID trackerId, UUID accountId, Instant asOf) {
+        log.debug("Finding account balance: trackerId={}, accountId={}, asOf={}", trackerId, accountId, asOf);
+        if (this.accountRepository.findAccountByTrackerIdAndId(trackerId, accountId).isEmpty()) {
+            throw new AccountAccessDeniedException();
+        }
+        Instant moment = asOf != null ? asOf : Instant.now();
+        BigDecimal balance = this.ledgerEntryRepository.findBalanceByAccountIdAsOf(accountId, moment);
+        return new AccountBalanceResponse(accountId, balance, moment);
+    }
+
+    @Transactional
+    public void compactSnapshots() {
+        if (!this.balanceSnapshotRepository.tryLockCompaction()) {
+            log.debug("Balance snapshot compaction is running on another instance, skipping");
+            return;
+        }
+        double lagSeconds = this.ledgerProperties.snapshotLag().toMillis() / 1000.0;
+        int snapshots = this.balanceSnapshotRepository.compactSnapshots(lagSeconds);
+        log.debug("Compacted ledger into {} balance snapshots", snapshots);
+    }
+
+}
\ No newline at end of file
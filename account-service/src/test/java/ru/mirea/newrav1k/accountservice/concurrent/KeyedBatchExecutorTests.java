@@ -0,0 +1,142 @@
+package ru.mirea.newrav1k.accountservice.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyedBatchExecutorTests {
+
+    private static final int KEYS = 8;
+
+    private static final int ITEMS_PER_KEY = 500;
+
+    private KeyedBatchExecutor<Integer, Integer> executor;
+
+    @AfterEach
+    void tearDown() {
+        if (this.executor != null) {
+            this.executor.destroy();
+        }
+    }
+
+    @Test
+    void itemsOfOneKeyAreAppliedInSubmissionOrderByOneWriter() {
+        Map<Integer, List<Integer>> applied = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> writers = new ConcurrentHashMap<>();
+        AtomicInteger maxWriters = new AtomicInteger();
+        this.executor = new KeyedBatchExecutor<>("test", 4, false, 16, (key, items) -> {
+            int active = writers.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            maxWriters.accumulateAndGet(active, Math::max);
+            applied.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).addAll(items);
+            writers.get(key).decrementAndGet();
+            return Collections.nCopies(items.size(), null);
+        });
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int item = 0; item < ITEMS_PER_KEY; item++) {
+            for (int key = 0; key < KEYS; key++) {
+                futures.add(this.executor.submit(key, item));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(10, TimeUnit.SECONDS).join();
+
+        List<Integer> expected = IntStream.range(0, ITEMS_PER_KEY).boxed().toList();
+        assertThat(applied).hasSize(KEYS).allSatisfy((key, items) -> assertThat(items).isEqualTo(expected));
+        assertThat(maxWriters.get()).isEqualTo(1);
+    }
+
+    @Test
+    void itemsSubmittedWhileBatchIsAppliedGoToNextBatch() throws InterruptedException {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        this.executor = new KeyedBatchExecutor<>("test", 2, false, 16, (key, items) -> {
+            batches.add(List.copyOf(items));
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                await(releaseFirstBatch);
+            }
+            return Collections.nCopies(items.size(), null);
+        });
+
+        CompletableFuture<Void> first = this.executor.submit(1, 0);
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = this.executor.submit(1, 1);
+        CompletableFuture<Void> third = this.executor.submit(1, 2);
+        releaseFirstBatch.countDown();
+
+        CompletableFuture.allOf(first, second, third).orTimeout(5, TimeUnit.SECONDS).join();
+        assertThat(batches).containsExactly(List.of(0), List.of(1, 2));
+    }
+
+    @Test
+    void submitRacingFinalDrainIsNotLost() {
+        // Каждый submit попадает либо в ящик, который ещё разбирается, либо в новый, для которого разбор запускается заново;
+        // потерянный элемент оставил бы future незавершённым
+        AtomicInteger applied = new AtomicInteger();
+        this.executor = new KeyedBatchExecutor<>("test", 2, false, 16, (key, items) -> {
+            applied.addAndGet(items.size());
+            return Collections.nCopies(items.size(), null);
+        });
+
+        int iterations = 20_000;
+        for (int item = 0; item < iterations; item++) {
+            CompletableFuture<Void> future = this.executor.submit(1, item);
+            if (item % 2 == 0) {
+                future.orTimeout(5, TimeUnit.SECONDS).join();
+            }
+        }
+        List<CompletableFuture<Void>> tail = IntStream.range(0, 100)
+                .mapToObj(item -> this.executor.submit(1, item))
+                .toList();
+        CompletableFuture.allOf(tail.toArray(CompletableFuture[]::new)).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertThat(applied.get()).isEqualTo(iterations + 100);
+    }
+
+    @Test
+    void failuresAreReportedPerItemAndHandlerExceptionFailsWholeBatch() {
+        this.executor = new KeyedBatchExecutor<>("test", 1, false, 16, (key, items) -> {
+            if (key == 2) {
+                throw new IllegalStateException("batch failed");
+            }
+            List<RuntimeException> failures = new ArrayList<>();
+            for (Integer item : items) {
+                failures.add(item % 2 == 0 ? null : new IllegalArgumentException("odd " + item));
+            }
+            return failures;
+        });
+
+        CompletableFuture<Void> even = this.executor.submit(1, 2);
+        CompletableFuture<Void> odd = this.executor.submit(1, 3);
+        CompletableFuture<Void> failedBatch = this.executor.submit(2, 4);
+
+        assertThat(even.orTimeout(5, TimeUnit.SECONDS).join()).isNull();
+        assertThatThrownBy(() -> odd.orTimeout(5, TimeUnit.SECONDS).join())
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> failedBatch.orTimeout(5, TimeUnit.SECONDS).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+package ru.mirea.newrav1k.accountservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.accountservice.model.entity.Account;
+import ru.mirea.newrav1k.accountservice.model.enums.AccountType;
+import ru.mirea.newrav1k.accountservice.model.enums.Currency;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Быстрый путь проверяется на настоящем Postgres: все условия и вставки живут в одном SQL-запросе
+@SpringBootTest
+class AccountRepositoryTests {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<UUID> transactionIds = new ArrayList<>();
+
+    private UUID trackerId;
+
+    @BeforeEach
+    void setUp() {
+        this.trackerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (UUID transactionId : this.transactionIds) {
+            this.jdbcTemplate.update("delete from account_management.t_ledger_entries where transaction_id = ?", transactionId);
+            this.jdbcTemplate.update("delete from account_management.t_bank_operations where transaction_id = ?", transactionId);
+        }
+        this.jdbcTemplate.update("delete from account_management.t_accounts where tracker_id = ?", this.trackerId);
+    }
+
+    @Test
+    void sufficientBalanceIsChangedAndOperationRecorded() {
+        Account account = saveAccount(AccountType.DEBIT_CARD, "100.00");
+        UUID transactionId = newTransactionId();
+
+        long applied = apply(account, transactionId, "-30.00");
+
+        assertThat(applied).isEqualTo(1);
+        assertThat(balanceOf(account)).isEqualByComparingTo("70.00");
+        assertThat(operationCount(transactionId)).isEqualTo(1);
+        // Проводка по счёту и встречная по внешней стороне
+        assertThat(ledgerCount(transactionId)).isEqualTo(2);
+        assertThat(ledgerSum(transactionId)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void insufficientBalanceChangesNothing() {
+        Account account = saveAccount(AccountType.DEBIT_CARD, "100.00");
+        UUID transactionId = newTransactionId();
+
+        long applied = apply(account, transactionId, "-100.01");
+
+        assertThat(applied).isZero();
+        assertThat(balanceOf(account)).isEqualByComparingTo("100.00");
+        assertThat(operationCount(transactionId)).isZero();
+        assertThat(ledgerCount(transactionId)).isZero();
+    }
+
+    @Test
+    void creditCardIsLeftToLockedPath() {
+        Account account = saveAccount(AccountType.CREDIT_CARD, "100.00");
+        UUID transactionId = newTransactionId();
+
+        long applied = apply(account, transactionId, "10.00");
+
+        assertThat(applied).isZero();
+        assertThat(balanceOf(account)).isEqualByComparingTo("100.00");
+        assertThat(operationCount(transactionId)).isZero();
+        assertThat(ledgerCount(transactionId)).isZero();
+    }
+
+    @Test
+    void repeatedTransactionIdIsNotAppliedTwice() {
+        Account account = saveAccount(AccountType.CASH, "100.00");
+        UUID transactionId = newTransactionId();
+
+        assertThat(apply(account, transactionId, "-30.00")).isEqualTo(1);
+        long repeated = apply(account, transactionId, "-30.00");
+
+        assertThat(repeated).isZero();
+        assertThat(balanceOf(account)).isEqualByComparingTo("70.00");
+        assertThat(operationCount(transactionId)).isEqualTo(1);
+        assertThat(ledgerCount(transactionId)).isEqualTo(2);
+    }
+
+    @Test
+    void foreignTrackerCannotChangeAccount() {
+        Account account = saveAccount(AccountType.DEBIT_CARD, "100.00");
+        UUID transactionId = newTransactionId();
+
+        Long applied = this.transactionTemplate.execute(status -> this.accountRepository.applyBalanceDeltaIfSufficient(
+                UUID.randomUUID(), account.getId(), transactionId, new BigDecimal("10.00")));
+
+        assertThat(applied).isZero();
+        assertThat(balanceOf(account)).isEqualByComparingTo("100.00");
+        assertThat(operationCount(transactionId)).isZero();
+    }
+
+    private Account saveAccount(AccountType type, String balance) {
+        Account account = new Account();
+        account.setTrackerId(this.trackerId);
+        account.setName(type + "-" + UUID.randomUUID());
+        account.setType(type);
+        account.setCurrency(Currency.RUB);
+        account.setBalance(new BigDecimal(balance));
+        account.setCreditLimit(new BigDecimal("500.00"));
+        return this.accountRepository.save(account);
+    }
+
+    private UUID newTransactionId() {
+        UUID transactionId = UUID.randomUUID();
+        this.transactionIds.add(transactionId);
+        return transactionId;
+    }
+
+    private long apply(Account account, UUID transactionId, String amount) {
+        Long applied = this.transactionTemplate.execute(status -> this.accountRepository.applyBalanceDeltaIfSufficient(
+                this.trackerId, account.getId(), transactionId, new BigDecimal(amount)));
+        return applied != null ? applied : 0;
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return this.jdbcTemplate.queryForObject("select balance from account_management.t_accounts where id = ?",
+                BigDecimal.class, account.getId());
+    }
+
+    private long operationCount(UUID transactionId) {
+        return this.jdbcTemplate.queryForObject("select count(*) from account_management.t_bank_operations where transaction_id = ?",
+                Long.class, transactionId);
+    }
+
+    private long ledgerCount(UUID transactionId) {
+        return this.jdbcTemplate.queryForObject("select count(*) from account_management.t_ledger_entries where transaction_id = ?",
+                Long.class, transactionId);
+    }
+
+    private BigDecimal ledgerSum(UUID transactionId) {
+        return this.jdbcTemplate.queryForObject(
+                "select coalesce(sum(amount), 0) from account_management.t_ledger_entries where transaction_id = ?",
+                BigDecimal.class, transactionId);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+package ru.mirea.newrav1k.accountservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.mirea.newrav1k.accountservice.exception.AccountAccessDeniedException;
+import ru.mirea.newrav1k.accountservice.exception.AccountBalanceException;
+import ru.mirea.newrav1k.accountservice.model.dto.BalanceUpdateRequest;
+import ru.mirea.newrav1k.accountservice.model.entity.Account;
+import ru.mirea.newrav1k.accountservice.model.enums.AccountType;
+import ru.mirea.newrav1k.accountservice.model.enums.Currency;
+import ru.mirea.newrav1k.accountservice.repository.AccountRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BalanceBatchServiceTests {
+
+    @Autowired
+    private BalanceBatchService balanceBatchService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> trackerIds = new ArrayList<>();
+
+    private final List<UUID> transactionIds = new ArrayList<>();
+
+    private UUID trackerId;
+
+    @BeforeEach
+    void setUp() {
+        this.trackerId = newTrackerId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (UUID transactionId : this.transactionIds) {
+            this.jdbcTemplate.update("delete from account_management.t_ledger_entries where transaction_id = ?", transactionId);
+            this.jdbcTemplate.update("delete from account_management.t_bank_operations where transaction_id = ?", transactionId);
+        }
+        for (UUID tracker : this.trackerIds) {
+            this.jdbcTemplate.update("delete from account_management.t_accounts where tracker_id = ?", tracker);
+        }
+    }
+
+    @Test
+    void batchIsAppliedToAllAccounts() {
+        Account first = saveAccount(this.trackerId, "100.00");
+        Account second = saveAccount(this.trackerId, "100.00");
+        UUID deposit = newTransactionId();
+        UUID withdrawal = newTransactionId();
+
+        this.balanceBatchService.applyBatch(this.trackerId, List.of(
+                update(first, deposit, "50.00"),
+                update(second, withdrawal, "-20.00")));
+
+        assertThat(balanceOf(first)).isEqualByComparingTo("150.00");
+        assertThat(balanceOf(second)).isEqualByComparingTo("80.00");
+        assertThat(operationCount(deposit, withdrawal)).isEqualTo(2);
+    }
+
+    @Test
+    void failedUpdateRollsBackWholeBatch() {
+        Account first = saveAccount(this.trackerId, "100.00");
+        Account second = saveAccount(this.trackerId, "100.00");
+        UUID deposit = newTransactionId();
+        UUID withdrawal = newTransactionId();
+
+        assertThatThrownBy(() -> this.balanceBatchService.applyBatch(this.trackerId, List.of(
+                update(first, deposit, "50.00"),
+                update(second, withdrawal, "-100.01"))))
+                .isInstanceOf(AccountBalanceException.class);
+
+        assertThat(balanceOf(first)).isEqualByComparingTo("100.00");
+        assertThat(balanceOf(second)).isEqualByComparingTo("100.00");
+        assertThat(operationCount(deposit, withdrawal)).isZero();
+        assertThat(ledgerCount(deposit, withdrawal)).isZero();
+    }
+
+    @Test
+    void duplicateWithinBatchIsAppliedOnce() {
+        Account account = saveAccount(this.trackerId, "100.00");
+        UUID transactionId = newTransactionId();
+
+        this.balanceBatchService.applyBatch(this.trackerId, List.of(
+                update(account, transactionId, "-30.00"),
+                update(account, transactionId, "-30.00")));
+
+        assertThat(balanceOf(account)).isEqualByComparingTo("70.00");
+        assertThat(operationCount(transactionId)).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateFromEarlierBatchIsSkipped() {
+        Account account = saveAccount(this.trackerId, "100.00");
+        UUID applied = newTransactionId();
+        UUID fresh = newTransactionId();
+        this.balanceBatchService.applyBatch(this.trackerId, List.of(update(account, applied, "-30.00")));
+
+        this.balanceBatchService.applyBatch(this.trackerId, List.of(
+                update(account, applied, "-30.00"),
+                update(account, fresh, "10.00")));
+
+        assertThat(balanceOf(account)).isEqualByComparingTo("80.00");
+        assertThat(operationCount(applied, fresh)).isEqualTo(2);
+    }
+
+    @Test
+    void foreignAccountRejectsWholeBatchWithUnauthorized() {
+        Account own = saveAccount(this.trackerId, "100.00");
+        Account foreign = saveAccount(newTrackerId(), "100.00");
+        UUID ownUpdate = newTransactionId();
+        UUID foreignUpdate = newTransactionId();
+
+        assertThatThrownBy(() -> this.balanceBatchService.applyBatch(this.trackerId, List.of(
+                update(own, ownUpdate, "10.00"),
+                update(foreign, foreignUpdate, "-10.00"))))
+                .isInstanceOfSatisfying(AccountAccessDeniedException.class,
+                        exception -> assertThat(exception.getHttpStatus()).isEqualTo(HttpStatus.UNAUTHORIZED));
+
+        assertThat(balanceOf(own)).isEqualByComparingTo("100.00");
+        assertThat(balanceOf(foreign)).isEqualByComparingTo("100.00");
+        assertThat(operationCount(ownUpdate, foreignUpdate)).isZero();
+    }
+
+    private Account saveAccount(UUID tracker, String balance) {
+        Account account = new Account();
+        account.setTrackerId(tracker);
+        account.setName("batch-" + UUID.randomUUID());
+        account.setType(AccountType.DEBIT_CARD);
+        account.setCurrency(Currency.RUB);
+        account.setBalance(new BigDecimal(balance));
+        return this.accountRepository.save(account);
+    }
+
+    private UUID newTrackerId() {
+        UUID tracker = UUID.randomUUID();
+        this.trackerIds.add(tracker);
+        return tracker;
+    }
+
+    private UUID newTransactionId() {
+        UUID transactionId = UUID.randomUUID();
+        this.transactionIds.add(transactionId);
+        return transactionId;
+    }
+
+    private static BalanceUpdateRequest update(Account account, UUID transactionId, String amount) {
+        return new BalanceUpdateRequest(account.getId(), transactionId, new BigDecimal(amount));
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return this.jdbcTemplate.queryForObject("select balance from account_management.t_accounts where id = ?",
+                BigDecimal.class, account.getId());
+    }
+
+    private long operationCount(UUID... transactionIds) {
+        return countByTransactionIds("account_management.t_bank_operations", transactionIds);
+    }
+
+    private long ledgerCount(UUID... transactionIds) {
+        return countByTransactionIds("account_management.t_ledger_entries", transactionIds);
+    }
+
+    private long countByTransactionIds(String table, UUID... transactionIds) {
+        long count = 0;
+        for (UUID transactionId : transactionIds) {
+            count += this.jdbcTemplate.queryForObject("select count(*) from " + table + " where transaction_id = ?",
+                    Long.class, transactionId);
+        }
+        return count;
+    }
+
+}
\ No newline at end of file
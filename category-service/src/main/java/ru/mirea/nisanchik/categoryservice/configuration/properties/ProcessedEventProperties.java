@@ -0,0 +1,16 @@
+package ru.mirea.nisanchik.categoryservice.configuration.properties;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "category-service.processed-events")
+public record ProcessedEventProperties(
+        @Positive int retentionDays,
+        @Positive int daysAhead,
+        @Positive int recentCapacity,
+        @Positive long expectedEvents
+) {
+
+}
\ No newline at end of file
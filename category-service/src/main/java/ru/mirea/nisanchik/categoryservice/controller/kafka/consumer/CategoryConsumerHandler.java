@@ -6,7 +6,6 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 import ru.mirea.nisanchik.categoryservice.event.CategoryDeletedEvent;
-import ru.mirea.nisanchik.categoryservice.model.entity.ProcessedEvent;
 import ru.mirea.nisanchik.categoryservice.service.CategoryService;
 import ru.mirea.nisanchik.categoryservice.service.ProcessedEventService;
 
@@ -22,4 +21,4 @@ public class CategoryConsumerHandler {
     public void handleCategorySuccessDeleted (@Payload final CategoryDeletedEvent categoryDeletedEvent) {
         //TODO: Даня допишешь
     }
-}
+}
\ No newline at end of file
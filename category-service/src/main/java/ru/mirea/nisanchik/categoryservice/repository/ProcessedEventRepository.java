@@ -1,12 +0,0 @@
-package ru.mirea.nisanchik.categoryservice.repository;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-import ru.mirea.nisanchik.categoryservice.model.entity.ProcessedEvent;
-
-import java.util.UUID;
-
-@Repository
-public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
-
-}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package ru.mirea.nisanchik.categoryservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.core.dedup.ProcessedEventStore;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessedEventScheduler {
+
+    private final ProcessedEventStore processedEventStore;
+
+    @Scheduled(fixedDelayString = "${category-service.processed-events.sync-interval}")
+    public void synchronize() {
+        try {
+            processedEventStore.synchronize();
+        } catch (Exception exception) {
+            log.error("Failed to synchronize processed event filter", exception);
+        }
+    }
+
+    @Scheduled(cron = "${category-service.processed-events.maintenance-cron}")
+    public void maintain() {
+        log.debug("Maintaining processed event partitions");
+        try {
+            processedEventStore.maintain();
+        } catch (Exception exception) {
+            log.error("Failed to maintain processed event partitions", exception);
+        }
+    }
+
+}
\ No newline at end of file
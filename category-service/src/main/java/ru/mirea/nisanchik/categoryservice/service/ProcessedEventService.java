@@ -3,10 +3,12 @@ package ru.mirea.nisanchik.categoryservice.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.mirea.nisanchik.categoryservice.model.entity.ProcessedEvent;
-import ru.mirea.nisanchik.categoryservice.repository.ProcessedEventRepository;
+import ru.mirea.newrav1k.core.dedup.ProcessedEventStore;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -14,12 +16,31 @@ import ru.mirea.nisanchik.categoryservice.repository.ProcessedEventRepository;
 @Transactional(readOnly = true)
 public class ProcessedEventService {
 
-    private final ProcessedEventRepository processedEventRepository;
+    private final ProcessedEventStore processedEventStore;
+
+    public boolean isEventProcessed(final UUID eventId) {
+        return this.processedEventStore.isProcessed(eventId);
+    }
+
+    public Set<UUID> findProcessedEvents(final Collection<UUID> eventIds) {
+        return this.processedEventStore.findProcessed(eventIds);
+    }
+
+    // Гарантию однократности даёт только вставка отметки перед обработкой, isEventProcessed - лишь быстрый отсев
+    @Transactional
+    public boolean processOnce(final UUID eventId, final Runnable processing) {
+        if (!this.processedEventStore.markProcessed(eventId)) {
+            log.debug("Event {} has already been processed", eventId);
+            return false;
+        }
+        processing.run();
+        return true;
+    }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void markEventAsProcessed(final ProcessedEvent processedEvent) {
-        log.debug("Marking processed event {}", processedEvent);
-        this.processedEventRepository.save(processedEvent);
+    @Transactional
+    public int markEventsAsProcessed(final Collection<UUID> eventIds) {
+        log.debug("Marking {} processed events", eventIds.size());
+        return this.processedEventStore.markAllProcessed(eventIds);
     }
 
 }
\ No newline at end of file
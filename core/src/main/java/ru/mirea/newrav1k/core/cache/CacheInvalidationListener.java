@@ -0,0 +1,48 @@
+package ru.mirea.newrav1k.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final String instanceId;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager, ObjectMapper objectMapper, String instanceId) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation =
+                    this.objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+            if (this.instanceId.equals(invalidation.instanceId())) {
+                return;
+            }
+            TwoLevelCache cache = this.cacheManager.getTwoLevelCache(invalidation.cacheName());
+            if (cache == null) {
+                return;
+            }
+            log.debug("Received cache invalidation {}", invalidation);
+            if (invalidation.key() == null) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(invalidation.key());
+            }
+        } catch (IOException exception) {
+            log.error("Failed to read cache invalidation message", exception);
+        }
+    }
+
+}
\ No newline at end of file
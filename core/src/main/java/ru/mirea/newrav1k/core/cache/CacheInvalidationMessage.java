@@ -0,0 +1,9 @@
+package ru.mirea.newrav1k.core.cache;
+
+public record CacheInvalidationMessage(
+        String instanceId,
+        String cacheName,
+        String key
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.mirea.newrav1k.core.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final String channel;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getInstanceId() {
+        return this.instanceId;
+    }
+
+    public void publish(String cacheName, Object key) {
+        CacheInvalidationMessage message = new CacheInvalidationMessage(
+                this.instanceId,
+                cacheName,
+                key != null ? key.toString() : null
+        );
+        try {
+            this.redisTemplate.convertAndSend(this.channel, this.objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException exception) {
+            log.error("Failed to serialize cache invalidation message {}", message, exception);
+        } catch (Exception exception) {
+            // Без рассылки копии на других экземплярах доживут до истечения локального TTL
+            log.warn("Failed to publish cache invalidation message {}", message, exception);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package ru.mirea.newrav1k.core.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+
+    private final Cache remoteCache;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         Cache remoteCache, CacheInvalidationPublisher invalidationPublisher) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = this.localCache.getIfPresent(localKey(key));
+        if (value != null) {
+            this.localHits.increment();
+            return value;
+        }
+        ValueWrapper remoteValue = this.remoteCache.get(key);
+        if (remoteValue != null && remoteValue.get() != null) {
+            this.remoteHits.increment();
+            this.localCache.put(localKey(key), remoteValue.get());
+            return remoteValue.get();
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        this.remoteCache.put(key, value);
+        this.localCache.put(localKey(key), value);
+        this.puts.increment();
+    }
+
+    @Override
+    public void evict(Object key) {
+        this.remoteCache.evict(key);
+        this.localCache.invalidate(localKey(key));
+        this.evictions.increment();
+        this.invalidationPublisher.publish(this.name, key);
+    }
+
+    @Override
+    public void clear() {
+        this.remoteCache.clear();
+        this.localCache.invalidateAll();
+        this.invalidationPublisher.publish(this.name, null);
+    }
+
+    public void evictLocal(Object key) {
+        this.localCache.invalidate(localKey(key));
+    }
+
+    public void clearLocal() {
+        this.localCache.invalidateAll();
+    }
+
+    public long getLocalSize() {
+        return this.localCache.estimatedSize();
+    }
+
+    public long getLocalHits() {
+        return this.localHits.sum();
+    }
+
+    public long getRemoteHits() {
+        return this.remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getPuts() {
+        return this.puts.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    // Ключи кэша бывают UUID и строками, а в сообщении об инвалидации приходит строка,
+    // поэтому локально ключ хранится в том же строковом виде, что и в Redis
+    private static String localKey(Object key) {
+        return key.toString();
+    }
+
+}
\ No newline at end of file
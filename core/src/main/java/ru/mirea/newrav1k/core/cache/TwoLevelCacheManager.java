@@ -0,0 +1,69 @@
+package ru.mirea.newrav1k.core.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    private final CacheManager remoteCacheManager;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final Collection<String> cacheNames;
+
+    private final long localMaximumSize;
+
+    private final Duration localTtl;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, CacheInvalidationPublisher invalidationPublisher,
+                                Collection<String> cacheNames, long localMaximumSize, Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cacheNames = cacheNames;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return this.cacheNames.stream()
+                .map(this::createTwoLevelCache)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createTwoLevelCache(name);
+    }
+
+    public TwoLevelCache getTwoLevelCache(String name) {
+        return this.twoLevelCaches.get(name);
+    }
+
+    public List<TwoLevelCache> getTwoLevelCaches() {
+        return List.copyOf(this.twoLevelCaches.values());
+    }
+
+    private TwoLevelCache createTwoLevelCache(String name) {
+        return this.twoLevelCaches.computeIfAbsent(name, cacheName -> new TwoLevelCache(
+                cacheName,
+                Caffeine.newBuilder()
+                        .maximumSize(this.localMaximumSize)
+                        .expireAfterWrite(this.localTtl)
+                        .build(),
+                this.remoteCacheManager.getCache(cacheName),
+                this.invalidationPublisher
+        ));
+    }
+
+}
\ No newline at end of file
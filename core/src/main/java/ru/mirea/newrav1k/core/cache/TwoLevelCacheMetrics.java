@@ -0,0 +1,77 @@
+package ru.mirea.newrav1k.core.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalHits() + cache.getRemoteHits() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getMisses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getEvictions() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getPuts() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        FunctionCounter.builder("cache.level.gets", cache, TwoLevelCache::getLocalHits)
+                .tags(getTagsWithCacheName()).tag("level", "l1").tag("result", "hit")
+                .description("The number of times a cache level returned a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.level.gets", cache, TwoLevelCache::getRemoteHits)
+                .tags(getTagsWithCacheName()).tag("level", "l2").tag("result", "hit")
+                .description("The number of times a cache level returned a cached value")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", cache, TwoLevelCacheMetrics::hitRatio)
+                .tags(getTagsWithCacheName())
+                .description("Share of lookups served by either cache level")
+                .register(registry);
+        Gauge.builder("cache.miss.ratio", cache, TwoLevelCacheMetrics::missRatio)
+                .tags(getTagsWithCacheName())
+                .description("Share of lookups that went to the database")
+                .register(registry);
+    }
+
+    private static double hitRatio(TwoLevelCache cache) {
+        long hits = cache.getLocalHits() + cache.getRemoteHits();
+        long total = hits + cache.getMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static double missRatio(TwoLevelCache cache) {
+        long total = cache.getLocalHits() + cache.getRemoteHits() + cache.getMisses();
+        return total == 0 ? 0.0 : (double) cache.getMisses() / total;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package ru.mirea.newrav1k.core.concurrent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// На JDK 21 виртуальный поток, блокирующийся внутри synchronized или native-кода, занимает поток-носитель;
+// такие места находятся по событию JFR jdk.VirtualThreadPinned и логируются со стеком
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+
+    private final LongAdder pinnedCount = new LongAdder();
+
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        this.recordingStream = stream;
+        log.info("Watching for virtual threads pinned longer than {}", this.threshold);
+    }
+
+    public long getPinnedCount() {
+        return this.pinnedCount.sum();
+    }
+
+    @Override
+    public void close() {
+        RecordingStream stream = this.recordingStream;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        this.pinnedCount.increment();
+        RecordedThread thread = event.getThread();
+        log.warn("Virtual thread {} pinned its carrier for {} ms at:\n{}",
+                thread != null ? thread.getJavaName() : "unknown",
+                event.getDuration().toMillis(),
+                formatStackTrace(event.getStackTrace()));
+    }
+
+    private static String formatStackTrace(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tstack trace unavailable";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package ru.mirea.newrav1k.core.dedup;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(1L, expectedInsertions);
+        long bits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1L, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) this.bitCount / insertions * Math.log(2)));
+    }
+
+    public void put(UUID value) {
+        long hash1 = mix(value.getMostSignificantBits());
+        long hash2 = mix(value.getLeastSignificantBits());
+        for (int i = 0; i < this.hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, this.bitCount);
+            this.words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (current, mask) -> current | mask);
+        }
+    }
+
+    public boolean mightContain(UUID value) {
+        long hash1 = mix(value.getMostSignificantBits());
+        long hash2 = mix(value.getLeastSignificantBits());
+        for (int i = 0; i < this.hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, this.bitCount);
+            if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Финализатор MurmurHash3: биты версии и варианта UUID не должны попадать в индексы напрямую
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+}
\ No newline at end of file
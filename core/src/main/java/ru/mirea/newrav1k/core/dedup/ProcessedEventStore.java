@@ -0,0 +1,316 @@
+package ru.mirea.newrav1k.core.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mirea.newrav1k.core.partition.PartitionedTable;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+public class ProcessedEventStore {
+
+    private static final String TABLE = "t_processed_events";
+
+    private static final String PARTITION_PREFIX = TABLE + "_";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'d'yyyyMMdd");
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    // Запас на транзакции, вставившие строку раньше, а закоммитившие позже момента синхронизации
+    private static final long SYNC_OVERLAP_MILLIS = 60_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionOperations transactionOperations;
+
+    private final String schema;
+
+    private final String qualifiedTable;
+
+    private final int retentionDays;
+
+    private final int daysAhead;
+
+    private final long expectedEvents;
+
+    private final PartitionedTable partitionedTable;
+
+    private final RecentEventIds recentEventIds;
+
+    private volatile BloomFilter eventFilter;
+
+    private volatile BloomFilter rebuildingFilter;
+
+    private volatile Timestamp synchronizedAt;
+
+    public ProcessedEventStore(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations, String schema,
+                               int retentionDays, int daysAhead, int recentCapacity, long expectedEvents) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.schema = schema;
+        this.qualifiedTable = schema + "." + TABLE;
+        this.retentionDays = retentionDays;
+        this.daysAhead = daysAhead;
+        this.expectedEvents = expectedEvents;
+        this.partitionedTable = new PartitionedTable(jdbcTemplate, schema, TABLE);
+        this.recentEventIds = new RecentEventIds(recentCapacity);
+        this.eventFilter = new BloomFilter(expectedEvents, FALSE_POSITIVE_RATE);
+    }
+
+    public void initialize() {
+        log.info("Initializing processed event store {}", this.qualifiedTable);
+        this.transactionOperations.executeWithoutResult(status -> {
+            this.jdbcTemplate.execute("create schema if not exists " + this.schema);
+            convertToPartitionedTable();
+            createFuturePartitions();
+        });
+        rebuildFilter();
+    }
+
+    public boolean isProcessed(UUID eventId) {
+        if (this.recentEventIds.contains(eventId)) {
+            return true;
+        }
+        // Отрицательный ответ фильтра знает только свои отметки и последнюю синхронизацию, поэтому годится лишь
+        // для отсева повторов там, где повторная обработка безвредна; однократность обеспечивает markProcessed
+        if (!this.eventFilter.mightContain(eventId)) {
+            return false;
+        }
+        Boolean exists = this.jdbcTemplate.queryForObject(
+                "select exists(select 1 from " + this.qualifiedTable + " where event_id = ?)", Boolean.class, eventId);
+        if (Boolean.TRUE.equals(exists)) {
+            this.recentEventIds.add(eventId);
+            return true;
+        }
+        return false;
+    }
+
+    public Set<UUID> findProcessed(Collection<UUID> eventIds) {
+        Set<UUID> processed = new HashSet<>();
+        List<UUID> candidates = new ArrayList<>();
+        for (UUID eventId : eventIds) {
+            if (this.recentEventIds.contains(eventId)) {
+                processed.add(eventId);
+            } else if (this.eventFilter.mightContain(eventId)) {
+                candidates.add(eventId);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            processed.addAll(this.jdbcTemplate.query(
+                    "select event_id from " + this.qualifiedTable + " where event_id = any(?)",
+                    statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid", candidates.toArray())),
+                    (resultSet, rowNum) -> resultSet.getObject(1, UUID.class)));
+        }
+        return processed;
+    }
+
+    public boolean markProcessed(UUID eventId) {
+        // Вызывается до обработки в её транзакции: конкурирующая вставка того же event_id ждёт коммита первой и
+        // возвращает false. Уникальность (event_id, bucket) действует в пределах суточной секции, предыдущие
+        // секции проверяются явно
+        int inserted = this.jdbcTemplate.update("""
+                insert into %s (event_id, bucket, processed_at)
+                select ?, current_date, now()
+                where not exists (select 1 from %s where event_id = ?)
+                on conflict do nothing
+                """.formatted(this.qualifiedTable, this.qualifiedTable), eventId, eventId);
+        rememberAfterCommit(List.of(eventId));
+        return inserted > 0;
+    }
+
+    public int markAllProcessed(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        Object[] ids = eventIds.toArray();
+        int inserted = this.jdbcTemplate.update("""
+                insert into %s (event_id, bucket, processed_at)
+                select distinct id, current_date, now()
+                from unnest(?) as id
+                where not exists (select 1 from %s p where p.event_id = id)
+                on conflict do nothing
+                """.formatted(this.qualifiedTable, this.qualifiedTable),
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid", ids)));
+        rememberAfterCommit(List.copyOf(eventIds));
+        return inserted;
+    }
+
+    public void synchronize() {
+        // Подтягиваем события, отмеченные другими экземплярами, чтобы фильтр не пропускал их как свежие
+        Timestamp now = this.jdbcTemplate.queryForObject("select now()", Timestamp.class);
+        Timestamp from = new Timestamp(this.synchronizedAt.getTime() - SYNC_OVERLAP_MILLIS);
+        this.jdbcTemplate.query("select event_id from " + this.qualifiedTable + " where processed_at > ?",
+                resultSet -> {
+                    putIntoFilters(resultSet.getObject(1, UUID.class));
+                }, from);
+        this.synchronizedAt = now;
+    }
+
+    public void maintain() {
+        Boolean dropped = this.transactionOperations.execute(status -> {
+            this.partitionedTable.lock();
+            createFuturePartitions();
+            return dropExpiredPartitions();
+        });
+        if (Boolean.TRUE.equals(dropped)) {
+            rebuildFilter();
+        }
+    }
+
+    private void convertToPartitionedTable() {
+        boolean converted = this.partitionedTable.convert("bucket",
+                legacy -> "event_id uuid not null, "
+                        + "bucket date not null, "
+                        + "processed_at timestamp with time zone not null, "
+                        + "primary key (event_id, bucket)",
+                legacy -> createFuturePartitions(),
+                legacy -> this.jdbcTemplate.execute("insert into " + this.qualifiedTable + " (event_id, bucket, processed_at)"
+                        + " select event_id, current_date, now() from " + legacy));
+        if (converted) {
+            this.jdbcTemplate.execute("create index idx_processed_event_processed_at on " + this.qualifiedTable + " (processed_at)");
+        }
+    }
+
+    private void createFuturePartitions() {
+        LocalDate today = currentDate();
+        for (int i = 0; i <= this.daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            this.partitionedTable.createPartition(PARTITION_PREFIX + day.format(PARTITION_SUFFIX),
+                    day.toString(), day.plusDays(1).toString());
+        }
+    }
+
+    private boolean dropExpiredPartitions() {
+        LocalDate retentionBoundary = currentDate().minusDays(this.retentionDays);
+        boolean dropped = false;
+        for (String partition : this.partitionedTable.findPartitions()) {
+            LocalDate day = parsePartitionDay(partition);
+            if (day != null && day.isBefore(retentionBoundary)) {
+                log.info("Dropping expired processed event partition {}", partition);
+                this.jdbcTemplate.execute("drop table " + this.schema + "." + partition);
+                dropped = true;
+            }
+        }
+        return dropped;
+    }
+
+    private void rebuildFilter() {
+        // Фильтр Блума не умеет удалять элементы, поэтому после удаления секций он строится заново
+        Long count = this.jdbcTemplate.queryForObject("select count(*) from " + this.qualifiedTable, Long.class);
+        long capacity = Math.max(this.expectedEvents, count != null ? count * 2 : 0L);
+        BloomFilter filter = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        this.rebuildingFilter = filter;
+        try {
+            Timestamp now = this.jdbcTemplate.queryForObject("select now()", Timestamp.class);
+            this.jdbcTemplate.query("select event_id from " + this.qualifiedTable,
+                    resultSet -> {
+                        filter.put(resultSet.getObject(1, UUID.class));
+                    });
+            this.eventFilter = filter;
+            this.synchronizedAt = now;
+        } finally {
+            this.rebuildingFilter = null;
+        }
+        log.debug("Rebuilt processed event filter for {} with {} events", this.qualifiedTable, count);
+    }
+
+    private void rememberAfterCommit(List<UUID> eventIds) {
+        // Откат транзакции не должен оставить в памяти отметку о необработанном событии
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(eventIds);
+                }
+            });
+        } else {
+            remember(eventIds);
+        }
+    }
+
+    private void remember(List<UUID> eventIds) {
+        for (UUID eventId : eventIds) {
+            this.recentEventIds.add(eventId);
+            putIntoFilters(eventId);
+        }
+    }
+
+    private void putIntoFilters(UUID eventId) {
+        this.eventFilter.put(eventId);
+        BloomFilter rebuilding = this.rebuildingFilter;
+        if (rebuilding != null) {
+            rebuilding.put(eventId);
+        }
+    }
+
+    private LocalDate currentDate() {
+        return this.jdbcTemplate.queryForObject("select current_date", LocalDate.class);
+    }
+
+    private LocalDate parsePartitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    // LRU проверяется на каждое событие всеми потоками; под synchronized на JDK 21 ожидающий монитора
+    // виртуальный поток закрепляет носитель, поэтому доступ защищён ReentrantLock
+    private static final class RecentEventIds {
+
+        private final Lock lock = new ReentrantLock();
+
+        private final LinkedHashMap<UUID, Boolean> entries;
+
+        private RecentEventIds(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private boolean contains(UUID eventId) {
+            this.lock.lock();
+            try {
+                // get, а не containsKey: в access-order карте только он обновляет позицию записи
+                return this.entries.get(eventId) != null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void add(UUID eventId) {
+            this.lock.lock();
+            try {
+                this.entries.put(eventId, Boolean.TRUE);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
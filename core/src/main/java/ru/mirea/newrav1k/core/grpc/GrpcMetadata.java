@@ -0,0 +1,21 @@
+package ru.mirea.newrav1k.core.grpc;
+
+import io.grpc.Metadata;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+// Те же заголовки, что Feign передаёт в HTTP: account-service аутентифицирует вызов по ним одинаково
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class GrpcMetadata {
+
+    public static final Metadata.Key<String> TRACKER_ID =
+            Metadata.Key.of("x-tracker-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    public static final Metadata.Key<String> TRACKER_AUTHORITIES =
+            Metadata.Key.of("x-tracker-authorities", Metadata.ASCII_STRING_MARSHALLER);
+
+    // HTTP-статус бизнес-ошибки, чтобы клиент отвечал так же, как при вызове через REST
+    public static final Metadata.Key<String> HTTP_STATUS =
+            Metadata.Key.of("x-http-status", Metadata.ASCII_STRING_MARSHALLER);
+
+}
\ No newline at end of file
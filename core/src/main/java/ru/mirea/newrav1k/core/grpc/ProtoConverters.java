@@ -0,0 +1,41 @@
+package ru.mirea.newrav1k.core.grpc;
+
+import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.mirea.newrav1k.core.grpc.account.Decimal;
+import ru.mirea.newrav1k.core.grpc.account.Uuid;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.UUID;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProtoConverters {
+
+    public static Uuid toProto(UUID value) {
+        return Uuid.newBuilder()
+                .setMostSignificantBits(value.getMostSignificantBits())
+                .setLeastSignificantBits(value.getLeastSignificantBits())
+                .build();
+    }
+
+    public static UUID fromProto(Uuid value) {
+        return new UUID(value.getMostSignificantBits(), value.getLeastSignificantBits());
+    }
+
+    public static Decimal toProto(BigDecimal value) {
+        return Decimal.newBuilder()
+                .setUnscaledValue(ByteString.copyFrom(value.unscaledValue().toByteArray()))
+                .setScale(value.scale())
+                .build();
+    }
+
+    public static BigDecimal fromProto(Decimal value) {
+        if (value.getUnscaledValue().isEmpty()) {
+            return BigDecimal.ZERO.setScale(value.getScale());
+        }
+        return new BigDecimal(new BigInteger(value.getUnscaledValue().toByteArray()), value.getScale());
+    }
+
+}
\ No newline at end of file
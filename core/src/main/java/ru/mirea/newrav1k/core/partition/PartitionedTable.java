@@ -0,0 +1,118 @@
+package ru.mirea.newrav1k.core.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Таблица, секционированная по диапазону. Все методы вызываются внутри транзакции: конвертация и обслуживание секций
+// берут транзакционную advisory-блокировку, поэтому экземпляры сервиса выполняют их по очереди
+@Slf4j
+public class PartitionedTable {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String schema;
+
+    private final String table;
+
+    private final String qualifiedTable;
+
+    public PartitionedTable(JdbcTemplate jdbcTemplate, String schema, String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.table = table;
+        this.qualifiedTable = schema + "." + table;
+    }
+
+    public void lock() {
+        this.jdbcTemplate.execute("select pg_advisory_xact_lock(hashtext('" + this.qualifiedTable + "'))");
+    }
+
+    // definition получает имя старой таблицы (или null, если таблицы не было) и возвращает описание колонок новой;
+    // createPartitions вызывается до переноса строк, copyFromLegacy - только если старая таблица была
+    public boolean convert(String partitionKey, Function<String, String> definition,
+                           Consumer<String> createPartitions, Consumer<String> copyFromLegacy) {
+        lock();
+        boolean exists = exists();
+        if (exists && isPartitioned()) {
+            log.debug("Table {} is already partitioned", this.qualifiedTable);
+            return false;
+        }
+        log.info("Converting {} to a table partitioned by {}", this.qualifiedTable, partitionKey);
+
+        String legacy = null;
+        if (exists) {
+            dropReferencingForeignKeys();
+            this.jdbcTemplate.execute("alter table " + this.qualifiedTable + " rename to " + this.table + "_legacy");
+            legacy = this.qualifiedTable + "_legacy";
+            // Имена ограничений и индексов уникальны в схеме и переехали бы вместе со старой таблицей
+            dropUniqueConstraintsAndIndexes(legacy);
+        }
+
+        this.jdbcTemplate.execute("create table " + this.qualifiedTable + " (" + definition.apply(legacy) + ")"
+                + " partition by range (" + partitionKey + ")");
+        this.jdbcTemplate.execute("create table " + this.qualifiedTable + "_default partition of " + this.qualifiedTable + " default");
+        createPartitions.accept(legacy);
+
+        if (legacy != null) {
+            copyFromLegacy.accept(legacy);
+            this.jdbcTemplate.execute("drop table " + legacy);
+        }
+        return true;
+    }
+
+    public void createPartition(String partition, String lowerBound, String upperBound) {
+        log.debug("Ensuring partition {} [{}, {})", partition, lowerBound, upperBound);
+        this.jdbcTemplate.execute("create table if not exists " + this.schema + "." + partition
+                + " partition of " + this.qualifiedTable
+                + " for values from ('" + lowerBound + "') to ('" + upperBound + "')");
+    }
+
+    public List<String> findPartitions() {
+        return this.jdbcTemplate.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = ?::regclass
+                """, String.class, this.qualifiedTable);
+    }
+
+    public boolean isPartitioned() {
+        Boolean partitioned = this.jdbcTemplate.queryForObject(
+                "select exists(select 1 from pg_partitioned_table where partrelid = ?::regclass)",
+                Boolean.class, this.qualifiedTable);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private boolean exists() {
+        Boolean exists = this.jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, this.qualifiedTable);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private void dropReferencingForeignKeys() {
+        // Внешний ключ на секционированную таблицу должен включать ключ секционирования, поэтому входящие FK убираем
+        List<String> foreignKeys = this.jdbcTemplate.queryForList("""
+                select format('alter table %s drop constraint %I', conrelid::regclass, conname)
+                from pg_constraint
+                where contype = 'f' and confrelid = ?::regclass
+                """, String.class, this.qualifiedTable);
+        foreignKeys.forEach(this.jdbcTemplate::execute);
+    }
+
+    private void dropUniqueConstraintsAndIndexes(String legacyTable) {
+        List<String> constraints = this.jdbcTemplate.queryForList("""
+                select format('alter table %s drop constraint %I', conrelid::regclass, conname)
+                from pg_constraint
+                where contype in ('p', 'u', 'x') and conrelid = ?::regclass
+                """, String.class, legacyTable);
+        constraints.forEach(this.jdbcTemplate::execute);
+        List<String> indexes = this.jdbcTemplate.queryForList(
+                "select format('drop index %s', indexrelid::regclass) from pg_index where indrelid = ?::regclass",
+                String.class, legacyTable);
+        indexes.forEach(this.jdbcTemplate::execute);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package ru.mirea.newrav1k.core.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    private static final int EXPECTED_INSERTIONS = 100_000;
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void insertedValuesAreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        List<UUID> values = randomUuids(EXPECTED_INSERTIONS);
+
+        values.forEach(filter::put);
+
+        values.forEach(value -> assertTrue(filter.mightContain(value), () -> "False negative for " + value));
+    }
+
+    @Test
+    void insertedValuesAreReportedAfterOverfilling() {
+        BloomFilter filter = new BloomFilter(1_000, FALSE_POSITIVE_RATE);
+        List<UUID> values = randomUuids(50_000);
+
+        values.forEach(filter::put);
+
+        values.forEach(value -> assertTrue(filter.mightContain(value), () -> "False negative for " + value));
+    }
+
+    @Test
+    void concurrentPutsDoNotLoseBits() {
+        // Соседние биты одного слова выставляются разными потоками; потерянное обновление дало бы ложноотрицательный ответ
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        List<List<UUID>> chunks = IntStream.range(0, 8)
+                .mapToObj(chunk -> randomUuids(EXPECTED_INSERTIONS / 8))
+                .toList();
+
+        CompletableFuture.allOf(chunks.stream()
+                .map(chunk -> CompletableFuture.runAsync(() -> chunk.forEach(filter::put)))
+                .toArray(CompletableFuture[]::new)).join();
+
+        chunks.forEach(chunk -> chunk.forEach(value ->
+                assertTrue(filter.mightContain(value), () -> "False negative for " + value)));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredOne() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        randomUuids(EXPECTED_INSERTIONS).forEach(filter::put);
+
+        long falsePositives = randomUuids(EXPECTED_INSERTIONS).stream().filter(filter::mightContain).count();
+
+        double rate = (double) falsePositives / EXPECTED_INSERTIONS;
+        assertTrue(rate < FALSE_POSITIVE_RATE * 2, () -> "False positive rate is " + rate);
+    }
+
+    private static List<UUID> randomUuids(int count) {
+        List<UUID> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(UUID.randomUUID());
+        }
+        return values;
+    }
+
+}
\ No newline at end of file
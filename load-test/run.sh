@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Сравнение платформенных и виртуальных потоков transaction-service при одинаковом размере пула Hikari.
+# Для каждой конфигурации (platform.env, virtual.env) сервис запускается заново, прогревается и нагружается
+# одним и тем же сценарием transactions.js. Нужны k6, запущенные docker/docker-compose.yaml и account/category-service
+# для сценария записи. Параметры нагрузки (RATE, DURATION, TRACKER_ID, ACCOUNT_ID, CATEGORY_ID) передаются в k6 как есть.
+#
+#   ./load-test/run.sh                  # обе конфигурации
+#   ./load-test/run.sh virtual          # только одна
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RESULTS="$ROOT/load-test/results"
+BASE_URL="${BASE_URL:-http://localhost:8083}"
+TRACKER_ID="${TRACKER_ID:-00000000-0000-0000-0000-000000000001}"
+AUTH=(-H "X-Tracker-Id: $TRACKER_ID" -H "X-Tracker-Authorities: ROLE_USER")
+MODES="${*:-platform virtual}"
+
+mkdir -p "$RESULTS"
+"$ROOT/gradlew" -p "$ROOT" :transaction-service:bootJar -q
+
+metric() {
+  curl -sf "${AUTH[@]}" "$BASE_URL/actuator/metrics/$1" | sed -E 's/.*"statistic":"VALUE","value":([0-9.E+-]+).*/\1/'
+}
+
+for mode in $MODES; do
+  echo "=== $mode ==="
+  set -a
+  # shellcheck disable=SC1090
+  source "$ROOT/load-test/$mode.env"
+  set +a
+
+  (cd "$ROOT/transaction-service" && exec java -jar build/libs/transaction-service-0.0.1-SNAPSHOT.jar) \
+    > "$RESULTS/$mode.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  until curl -sf "${AUTH[@]}" "$BASE_URL/actuator/health" > /dev/null; do
+    kill -0 $pid 2>/dev/null || { echo "transaction-service failed to start, see $RESULTS/$mode.log"; exit 1; }
+    sleep 2
+  done
+
+  # Прогрев JIT и пула соединений не попадает в результат
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e DURATION=30s "$ROOT/load-test/transactions.js" > /dev/null || true
+  k6 run -e BASE_URL="$BASE_URL" --summary-export "$RESULTS/$mode.json" "$ROOT/load-test/transactions.js" || true
+
+  echo "jvm.threads.peak=$(metric jvm.threads.peak) hikaricp.connections.max=$(metric hikaricp.connections.max)" \
+    | tee "$RESULTS/$mode.metrics"
+
+  kill $pid
+  wait $pid 2>/dev/null || true
+  trap - EXIT
+done
+
+echo "Results: $RESULTS/{platform,virtual}.json"
@@ -0,0 +1,80 @@
+// Нагрузка на transaction-service в обход gateway: аутентификация берётся из заголовков X-Tracker-*.
+// Чтение списка, курсора и сводки идёт всегда; создание транзакций включается, если заданы ACCOUNT_ID и CATEGORY_ID
+// (счёт должен принадлежать TRACKER_ID в account-service)
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083';
+const TRACKER_ID = __ENV.TRACKER_ID || '00000000-0000-0000-0000-000000000001';
+const ACCOUNT_ID = __ENV.ACCOUNT_ID;
+const CATEGORY_ID = __ENV.CATEGORY_ID;
+const RATE = Number(__ENV.RATE || 300);
+const DURATION = __ENV.DURATION || '2m';
+
+const HEADERS = {
+    'X-Tracker-Id': TRACKER_ID,
+    'X-Tracker-Authorities': 'ROLE_USER',
+    'Content-Type': 'application/json',
+};
+
+// Постоянная интенсивность: при насыщении растёт задержка, а не падает нагрузка, поэтому режимы сравнимы
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            exec: 'reads',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 100,
+            maxVUs: 1000,
+        },
+        ...(ACCOUNT_ID && CATEGORY_ID ? {
+            writes: {
+                executor: 'constant-arrival-rate',
+                exec: 'writes',
+                rate: Math.max(1, Math.floor(RATE / 10)),
+                timeUnit: '1s',
+                duration: DURATION,
+                preAllocatedVUs: 20,
+                maxVUs: 200,
+            },
+        } : {}),
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{endpoint:list}': ['p(99)<1000'],
+        'http_req_duration{endpoint:cursor}': ['p(99)<1000'],
+        'http_req_duration{endpoint:summary}': ['p(99)<1000'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function reads() {
+    const roll = Math.random();
+    let response;
+    if (roll < 0.5) {
+        response = http.get(`${BASE_URL}/api/transactions?page=0&size=20&sort=createdAt,desc`,
+            { headers: HEADERS, tags: { endpoint: 'list' } });
+    } else if (roll < 0.8) {
+        response = http.get(`${BASE_URL}/api/transactions?cursor=&size=20`,
+            { headers: HEADERS, tags: { endpoint: 'cursor' } });
+    } else {
+        response = http.get(`${BASE_URL}/api/transactions/summary`,
+            { headers: HEADERS, tags: { endpoint: 'summary' } });
+    }
+    check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function writes() {
+    const body = JSON.stringify({
+        amount: (1 + Math.random() * 100).toFixed(2),
+        type: 'EXPENSE',
+        categoryId: CATEGORY_ID,
+        accountId: ACCOUNT_ID,
+        description: 'load-test',
+        tags: ['load-test'],
+    });
+    const response = http.post(`${BASE_URL}/api/transactions`, body, { headers: HEADERS, tags: { endpoint: 'create' } });
+    check(response, { 'status is 201': (r) => r.status === 201 });
+}
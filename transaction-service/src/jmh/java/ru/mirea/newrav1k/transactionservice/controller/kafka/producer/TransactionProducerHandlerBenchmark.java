@@ -0,0 +1,99 @@
+package ru.mirea.newrav1k.transactionservice.controller.kafka.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.EventEncodingProperties;
+import ru.mirea.newrav1k.transactionservice.event.TransactionAcceptedEvent;
+import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.EventEncoding;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.serialization.AvroEventCodec;
+import ru.mirea.newrav1k.transactionservice.serialization.LocalSchemaRegistry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Работа ретранслятора outbox на одно событие до отправки в сеть. deserializeAndReserialize повторяет прежний путь:
+// поиск класса через Class.forName, разбор payload и повторная запись JsonSerializer; buildRecord - текущий код
+// TransactionProducerHandler, который в JSON отправляет payload как есть. Запуск с -prof gc показывает и аллокации
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionProducerHandlerBenchmark {
+
+    private static final String TOPIC = "transaction-accepted";
+
+    @Param({"JSON", "AVRO"})
+    private EventEncoding encoding;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    private TransactionProducerHandler handler;
+
+    private OutboxEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AvroEventCodec codec = new AvroEventCodec(
+                new LocalSchemaRegistry(new PathMatchingResourcePatternResolver(), "classpath:schemas/", Map.of()));
+        // KafkaTemplate не нужен: измеряется только построение записи
+        this.handler = new TransactionProducerHandler(null, codec,
+                new EventEncodingProperties(this.encoding, "classpath:schemas/", Map.of()), this.objectMapper);
+        UUID accountId = UUID.randomUUID();
+        TransactionAcceptedEvent payload = new TransactionAcceptedEvent(UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), accountId, TransactionType.EXPENSE, new BigDecimal("1234.50"));
+        this.event = OutboxEvent.builder()
+                .aggregateType("Transaction")
+                .aggregateId(payload.transactionId())
+                .messageKey(accountId.toString())
+                .topic(TOPIC)
+                .eventType(TransactionAcceptedEvent.class.getSimpleName())
+                .payload(this.objectMapper.writeValueAsString(payload))
+                .build();
+    }
+
+    @Benchmark
+    public ProducerRecord<String, byte[]> buildRecord() throws IOException {
+        return this.handler.buildRecord(this.event);
+    }
+
+    @Benchmark
+    public byte[] deserializeAndReserialize() throws IOException, ClassNotFoundException {
+        Class<?> type = Class.forName("ru.mirea.newrav1k.transactionservice.event." + this.event.getEventType());
+        Object payload = this.objectMapper.readValue(this.event.getPayload(), type);
+        return this.jsonSerializer.serialize(this.event.getTopic(), payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionProducerHandlerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
\ No newline at end of file
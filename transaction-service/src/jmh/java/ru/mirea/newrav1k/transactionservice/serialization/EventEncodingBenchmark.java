@@ -0,0 +1,96 @@
+package ru.mirea.newrav1k.transactionservice.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import ru.mirea.newrav1k.transactionservice.event.EventTypes;
+import ru.mirea.newrav1k.transactionservice.event.TransactionAcceptedEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.EventEncoding;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость кодирования события в JSON и Avro теми же сериализаторами, что настроены в KafkaConfiguration.
+// Размер записи печатается в TearDown: вместе с -prof gc это даёт CPU, аллокации и байты на событие
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventEncodingBenchmark {
+
+    private static final String TOPIC = "transaction-accepted";
+
+    @Param({"JSON", "AVRO"})
+    private EventEncoding encoding;
+
+    private EventSerializer serializer;
+
+    private EventDeserializer deserializer;
+
+    private TransactionAcceptedEvent event;
+
+    private byte[] encoded;
+
+    private Headers encodedHeaders;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AvroEventCodec codec = new AvroEventCodec(
+                new LocalSchemaRegistry(new PathMatchingResourcePatternResolver(), "classpath:schemas/", Map.of()));
+        this.serializer = new EventSerializer(codec, this.encoding);
+        this.deserializer = new EventDeserializer(codec);
+        this.deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.TYPE_MAPPINGS, EventTypes.toTypeMappings()), false);
+        this.event = new TransactionAcceptedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), TransactionType.EXPENSE, new BigDecimal("1234.50"));
+        this.encodedHeaders = new RecordHeaders();
+        this.encoded = this.serializer.serialize(TOPIC, this.encodedHeaders, this.event);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s record size: %d bytes%n", this.encoding, this.encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return this.serializer.serialize(TOPIC, new RecordHeaders(), this.event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return this.deserializer.deserialize(TOPIC, this.encodedHeaders, this.encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventEncodingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
\ No newline at end of file
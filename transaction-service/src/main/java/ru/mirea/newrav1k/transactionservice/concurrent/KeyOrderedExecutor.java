@@ -0,0 +1,85 @@
+package ru.mirea.newrav1k.transactionservice.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+@Slf4j
+public class KeyOrderedExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+
+    public KeyOrderedExecutor(int parallelism, boolean virtualThreads) {
+        // Пул ограничивает число одновременно обрабатываемых ключей и в режиме виртуальных потоков
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("key-ordered-", 1).factory()
+                : Thread.ofPlatform().name("key-ordered-", 1).daemon(true).factory();
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    // Записи с разными ключами обрабатываются параллельно, с одинаковым - строго в порядке партиции.
+    // Метод ждёт всю пачку, поэтому контейнер коммитит offset только после её обработки
+    public <T> void executeAll(List<ConsumerRecord<String, T>> records, Consumer<T> handler) {
+        Map<String, List<Integer>> indexesByKey = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            indexesByKey.computeIfAbsent(Objects.toString(records.get(i).key()), key -> new ArrayList<>()).add(i);
+        }
+
+        BatchFailure failure = new BatchFailure();
+        List<CompletableFuture<Void>> groups = new ArrayList<>(indexesByKey.size());
+        for (List<Integer> indexes : indexesByKey.values()) {
+            groups.add(CompletableFuture.runAsync(() -> {
+                for (int index : indexes) {
+                    try {
+                        handler.accept(records.get(index).value());
+                    } catch (Exception exception) {
+                        log.error("Failed to process record {} with key {}", index, records.get(index).key(), exception);
+                        failure.register(index, exception);
+                        // Следующие записи того же ключа нельзя обрабатывать раньше упавшей
+                        return;
+                    }
+                }
+            }, this.executor));
+        }
+        CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new)).join();
+
+        if (failure.exception != null) {
+            // Записи до упавшей будут закоммичены, остальные придут повторно и отсеются по processed events
+            throw new BatchListenerFailedException("Failed to process record " + failure.index,
+                    failure.exception, failure.index);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdown();
+    }
+
+    private static final class BatchFailure {
+
+        private int index = Integer.MAX_VALUE;
+
+        private Exception exception;
+
+        private synchronized void register(int index, Exception exception) {
+            if (index < this.index) {
+                this.index = index;
+                this.exception = exception;
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package ru.mirea.newrav1k.transactionservice.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import ru.mirea.newrav1k.core.cache.CacheInvalidationListener;
+import ru.mirea.newrav1k.core.cache.CacheInvalidationPublisher;
+import ru.mirea.newrav1k.core.cache.TwoLevelCacheManager;
+import ru.mirea.newrav1k.core.cache.TwoLevelCacheMetrics;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionCacheProperties;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String TRANSACTION_DETAILS_CACHE = "transaction-details";
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 ObjectMapper objectMapper,
+                                                                 TransactionCacheProperties cacheProperties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, objectMapper, cacheProperties.invalidationChannel());
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             ObjectMapper objectMapper,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             TransactionCacheProperties cacheProperties) {
+        RedisCacheConfiguration transactionDetailsConfiguration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.string()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, TransactionResponse.class)))
+                .computePrefixWith(cacheName -> "transaction-service:" + cacheName + ":")
+                .entryTtl(cacheProperties.remoteTtl())
+                .disableCachingNullValues();
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .withInitialCacheConfigurations(Map.of(TRANSACTION_DETAILS_CACHE, transactionDetailsConfiguration))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                redisCacheManager,
+                cacheInvalidationPublisher,
+                List.of(TRANSACTION_DETAILS_CACHE),
+                cacheProperties.localMaximumSize(),
+                cacheProperties.localTtl()
+        );
+        // Кэш наполняется и очищается только после коммита, иначе параллельное чтение вернёт в кэш старое значение
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                                            ObjectMapper objectMapper,
+                                                                            TransactionCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, objectMapper, cacheInvalidationPublisher.getInstanceId()),
+                new ChannelTopic(cacheProperties.invalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public MeterBinder twoLevelCacheMetrics(TwoLevelCacheManager cacheManager) {
+        return registry -> cacheManager.getTwoLevelCaches()
+                .forEach(cache -> new TwoLevelCacheMetrics(cache).bindTo(registry));
+    }
+
+}
\ No newline at end of file
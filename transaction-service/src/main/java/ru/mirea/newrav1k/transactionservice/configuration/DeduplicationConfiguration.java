@@ -0,0 +1,29 @@
+package ru.mirea.newrav1k.transactionservice.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.core.dedup.ProcessedEventStore;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.ProcessedEventProperties;
+
+@Configuration
+public class DeduplicationConfiguration {
+
+    private static final String SCHEMA = "transaction_management";
+
+    @Bean(initMethod = "initialize")
+    public ProcessedEventStore processedEventStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                                   ProcessedEventProperties properties) {
+        return new ProcessedEventStore(
+                jdbcTemplate,
+                transactionTemplate,
+                SCHEMA,
+                properties.retentionDays(),
+                properties.daysAhead(),
+                properties.recentCapacity(),
+                properties.expectedEvents()
+        );
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package ru.mirea.newrav1k.transactionservice.configuration;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.AccountGrpcProperties;
+import ru.mirea.newrav1k.transactionservice.service.client.ManagedChannelPool;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class GrpcConfiguration {
+
+    // Каналы подключаются лениво при первом вызове, поэтому при выключенном gRPC соединений нет
+    @Bean(destroyMethod = "close")
+    public ManagedChannelPool accountChannelPool(AccountGrpcProperties properties) {
+        return new ManagedChannelPool(properties.channels(), () -> NettyChannelBuilder.forTarget(properties.target())
+                .usePlaintext()
+                .keepAliveTime(properties.keepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveWithoutCalls(true)
+                .build());
+    }
+
+}
\ No newline at end of file
@@ -1,28 +1,55 @@
 package ru.mirea.newrav1k.transactionservice.configuration;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
+import ru.mirea.newrav1k.transactionservice.concurrent.KeyOrderedExecutor;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.EventEncodingProperties;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionProcessingProperties;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionRetryProperties;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionTopicConfigProperties;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionTopicsProperties;
+import ru.mirea.newrav1k.transactionservice.event.EventTypes;
+import ru.mirea.newrav1k.transactionservice.event.RetryTopics;
+import ru.mirea.newrav1k.transactionservice.serialization.AvroEventCodec;
+import ru.mirea.newrav1k.transactionservice.serialization.EventDeserializer;
+import ru.mirea.newrav1k.transactionservice.serialization.EventSerializer;
+import ru.mirea.newrav1k.transactionservice.serialization.LocalSchemaRegistry;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 @EnableKafka
 @Configuration
@@ -35,50 +62,155 @@ public class KafkaConfiguration {
     private String groupId;
 
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public LocalSchemaRegistry localSchemaRegistry(ResourcePatternResolver resourcePatternResolver,
+                                                   EventEncodingProperties encodingProperties) throws IOException {
+        return new LocalSchemaRegistry(resourcePatternResolver, encodingProperties.schemaLocation(),
+                encodingProperties.pinnedVersions());
+    }
+
+    @Bean
+    public AvroEventCodec avroEventCodec(LocalSchemaRegistry localSchemaRegistry) {
+        return new AvroEventCodec(localSchemaRegistry);
+    }
+
+    @Bean
+    public ConsumerFactory<String, Object> consumerFactory(AvroEventCodec avroEventCodec) {
         Map<String, Object> props = new HashMap<>();
 
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EventDeserializer.class);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, this.groupId);
 
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        // Заголовок __TypeId__ содержит простое имя события; класс берётся из заранее построенной таблицы
+        props.put(JsonDeserializer.TYPE_MAPPINGS, EventTypes.toTypeMappings());
 
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new JsonDeserializer<>());
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new EventDeserializer(avroEventCodec));
     }
 
+    // Фабрика по умолчанию для @KafkaListener без containerFactory и основа пакетных фабрик ниже:
+    // десериализация и переход упавших записей по ступеням повтора у всех слушателей одинаковы
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(ConsumerFactory<String, Object> consumerFactory,
                                                                                                  DefaultErrorHandler errorHandler) {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory);
-        factory.setCommonErrorHandler(errorHandler);
-        return factory;
+        return containerFactory(consumerFactory, errorHandler);
+    }
+
+    // Пачка раскладывается по ключам (accountId) в KeyOrderedExecutor
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> transactionWorkerContainerFactory(ConsumerFactory<String, Object> consumerFactory,
+                                                                                                    DefaultErrorHandler errorHandler,
+                                                                                                    TransactionProcessingProperties processingProperties) {
+        return batchContainerFactory(consumerFactory, errorHandler,
+                processingProperties.workerConcurrency(), processingProperties.workerMaxPollRecords());
+    }
+
+    // Пакетный слушатель: события смены статуса за один poll применяются одним UPDATE в одной транзакции
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> transactionStatusBatchContainerFactory(ConsumerFactory<String, Object> consumerFactory,
+                                                                                                         DefaultErrorHandler errorHandler,
+                                                                                                         TransactionProcessingProperties processingProperties) {
+        return batchContainerFactory(consumerFactory, errorHandler,
+                processingProperties.workerConcurrency(), processingProperties.statusBatchMaxPollRecords());
     }
 
     @Bean
-    public DefaultErrorHandler errorHandler(KafkaTemplate<String, Object> kafkaTemplate) {
-        ExponentialBackOffWithMaxRetries retries = new ExponentialBackOffWithMaxRetries(3);
-        retries.setInitialInterval(1000L);
-        retries.setMultiplier(2);
-        retries.setMaxInterval(4000L);
-        return new DefaultErrorHandler(new DeadLetterPublishingRecoverer(
+    public KeyOrderedExecutor keyOrderedExecutor(TransactionProcessingProperties processingProperties, Environment environment) {
+        return new KeyOrderedExecutor(processingProperties.keyParallelism(), Threading.VIRTUAL.isActive(environment));
+    }
+
+    // Число партиций задаёт предел горизонтального масштабирования консьюмеров;
+    // ступени повтора и DLT повторяют партиции исходного топика
+    @Bean
+    public KafkaAdmin.NewTopics transactionTopics(TransactionTopicsProperties topics,
+                                                  TransactionTopicConfigProperties topicConfig,
+                                                  TransactionRetryProperties retryProperties) {
+        List<String> names = new ArrayList<>();
+        for (String topic : mainTopics(topics)) {
+            names.add(topic);
+            names.add(RetryTopics.deadLetterTopic(topic));
+        }
+        names.addAll(List.of(retryTopicNames(topics, retryProperties)));
+        return new KafkaAdmin.NewTopics(names.stream()
+                .map(name -> TopicBuilder.name(name)
+                        .partitions(topicConfig.partitions())
+                        .replicas(topicConfig.replicationFactor())
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+
+    // Упавшая запись сразу уходит на ступень повтора и не держит партицию; после последней ступени - в .DLT
+    @Bean
+    public DefaultErrorHandler errorHandler(KafkaTemplate<String, Object> kafkaTemplate,
+                                            TransactionRetryProperties retryProperties) {
+        List<Duration> delays = retryProperties.delays();
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
                 kafkaTemplate,
-                (consumerRecord, exception) -> new TopicPartition(consumerRecord.topic() + ".DLT", consumerRecord.partition())),
-                retries
-        );
+                (consumerRecord, exception) -> {
+                    int attempt = RetryTopics.attempt(consumerRecord.headers());
+                    String destination = attempt < delays.size()
+                            ? RetryTopics.retryTopic(consumerRecord.topic(), attempt)
+                            : RetryTopics.deadLetterTopic(consumerRecord.topic());
+                    return new TopicPartition(destination, consumerRecord.partition());
+                });
+        recoverer.setHeadersFunction((consumerRecord, exception) -> {
+            int attempt = RetryTopics.attempt(consumerRecord.headers());
+            Headers headers = new RecordHeaders();
+            headers.add(RetryTopics.ATTEMPT_HEADER, RetryTopics.encode(attempt + 1L));
+            if (attempt < delays.size()) {
+                long dueAt = System.currentTimeMillis() + delays.get(attempt).toMillis();
+                headers.add(RetryTopics.DUE_AT_HEADER, RetryTopics.encode(dueAt));
+            }
+            return headers;
+        });
+        return new DefaultErrorHandler(recoverer, new FixedBackOff(0L, 0L));
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> rawConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, this.groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer());
     }
 
+    // Ступени повтора читаются без десериализации: запись лишь выдерживается до x-retry-due-at и возвращается как есть
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryRelayContainerFactory(ConsumerFactory<String, byte[]> rawConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(rawConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    public String[] retryTopicNames(TransactionTopicsProperties topics, TransactionRetryProperties retryProperties) {
+        List<String> names = new ArrayList<>();
+        for (String topic : mainTopics(topics)) {
+            for (int attempt = 0; attempt < retryProperties.delays().size(); attempt++) {
+                names.add(RetryTopics.retryTopic(topic, attempt));
+            }
+        }
+        return names.toArray(String[]::new);
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory(AvroEventCodec avroEventCodec,
+                                                           EventEncodingProperties encodingProperties) {
         Map<String, Object> props = new HashMap<>();
 
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class);
 
-        return new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new JsonSerializer<>());
+        return new DefaultKafkaProducerFactory<>(props, new StringSerializer(),
+                new EventSerializer(avroEventCodec, encodingProperties.format()));
     }
 
     @Bean
@@ -86,4 +218,59 @@ public class KafkaConfiguration {
         return new KafkaTemplate<>(producerFactory);
     }
 
+    // Outbox-релей отправляет пачку асинхронно: продюсер копит записи в батчи, идемпотентность сохраняет порядок
+    @Bean
+    public ProducerFactory<String, byte[]> rawProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+
+        return new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> rawKafkaTemplate(ProducerFactory<String, byte[]> rawProducerFactory) {
+        return new KafkaTemplate<>(rawProducerFactory);
+    }
+
+    // Вызов @Bean-метода вернул бы общий синглтон, поэтому каждая фабрика собирается заново
+    private static ConcurrentKafkaListenerContainerFactory<String, Object> containerFactory(ConsumerFactory<String, Object> consumerFactory,
+                                                                                           DefaultErrorHandler errorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    private static ConcurrentKafkaListenerContainerFactory<String, Object> batchContainerFactory(ConsumerFactory<String, Object> consumerFactory,
+                                                                                                DefaultErrorHandler errorHandler,
+                                                                                                int concurrency, int maxPollRecords) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = containerFactory(consumerFactory, errorHandler);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+
+        return factory;
+    }
+
+    public static List<String> mainTopics(TransactionTopicsProperties topics) {
+        return List.of(
+                topics.transactionSuccessfullyCreated(),
+                topics.transactionBalanceFailure(),
+                topics.transactionCompensate(),
+                topics.transactionCompensateFailure(),
+                topics.transactionCompensateDifferenceAmount(),
+                topics.transactionAccepted(),
+                topics.transactionImportBalance()
+        );
+    }
+
 }
\ No newline at end of file
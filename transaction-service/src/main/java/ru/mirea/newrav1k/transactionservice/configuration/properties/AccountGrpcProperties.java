@@ -0,0 +1,21 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.services.account-service.grpc")
+public record AccountGrpcProperties(
+        boolean enabled,
+        @NotBlank String target,
+        @Positive int channels,
+        @NotNull Duration deadline,
+        @NotNull Duration keepAliveTime
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+import ru.mirea.newrav1k.transactionservice.model.enums.EventEncoding;
+
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.kafka.encoding")
+public record EventEncodingProperties(
+        @NotNull EventEncoding format,
+        @NotBlank String schemaLocation,
+        Map<String, Integer> pinnedVersions
+) {
+
+    public EventEncodingProperties {
+        pinnedVersions = pinnedVersions != null ? Map.copyOf(pinnedVersions) : Map.of();
+    }
+
+}
\ No newline at end of file
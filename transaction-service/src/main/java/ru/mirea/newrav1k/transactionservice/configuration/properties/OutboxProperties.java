@@ -0,0 +1,22 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+import ru.mirea.newrav1k.transactionservice.model.enums.OutboxDispatchMode;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.outbox")
+public record OutboxProperties(
+        @NotNull OutboxDispatchMode dispatchMode,
+        @Positive int workers,
+        @Positive int batchSize,
+        @NotNull Duration sendTimeout,
+        @NotNull Duration claimTimeout,
+        @NotNull Duration listenReconnectDelay
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.outbox.retention")
+public record OutboxRetentionProperties(
+        boolean enabled,
+        @Positive int daysAhead,
+        @Positive int retentionDays
+) {
+
+}
\ No newline at end of file
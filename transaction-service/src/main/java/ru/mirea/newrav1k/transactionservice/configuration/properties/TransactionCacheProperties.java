@@ -0,0 +1,20 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.cache")
+public record TransactionCacheProperties(
+        @Positive long localMaximumSize,
+        @NotNull Duration localTtl,
+        @NotNull Duration remoteTtl,
+        @NotBlank String invalidationChannel
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.partitioning")
+public record TransactionPartitionProperties(
+        boolean enabled,
+        @Positive int monthsAhead,
+        @Positive int retentionMonths
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.processing")
+public record TransactionProcessingProperties(
+        @Positive int workerConcurrency,
+        @Positive int workerMaxPollRecords,
+        @Positive int batchChunkSize,
+        @Positive int statusBatchMaxPollRecords,
+        @Positive int keyParallelism
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.kafka.retry")
+public record TransactionRetryProperties(
+        @NotEmpty List<Duration> delays,
+        @Positive int replayRatePerSecond,
+        @NotNull Duration replayPollTimeout
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.mirea.newrav1k.transactionservice.configuration.properties;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "transaction-service.kafka.topic-config")
+public record TransactionTopicConfigProperties(
+        @Positive int partitions,
+        @Positive int replicationFactor
+) {
+
+}
\ No newline at end of file
@@ -11,7 +11,9 @@ public record TransactionTopicsProperties(
         @NotBlank String transactionBalanceFailure,
         @NotBlank String transactionCompensate,
         @NotBlank String transactionCompensateFailure,
-        @NotBlank String transactionCompensateDifferenceAmount
+        @NotBlank String transactionCompensateDifferenceAmount,
+        @NotBlank String transactionAccepted,
+        @NotBlank String transactionImportBalance
 ) {
 
 }
\ No newline at end of file
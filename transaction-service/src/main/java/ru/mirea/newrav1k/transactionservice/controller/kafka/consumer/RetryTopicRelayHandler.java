@@ -0,0 +1,52 @@
+package ru.mirea.newrav1k.transactionservice.controller.kafka.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.event.RetryTopics;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryTopicRelayHandler {
+
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    // nack ставит на паузу весь консьюмер, поэтому долгая ступень не должна задерживать короткие дольше этого
+    private static final long MAX_PAUSE_MILLIS = 1000;
+
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
+
+    // Ступень повтора - очередь с задержкой: до x-retry-due-at партиция ставится на паузу через nack,
+    // затем запись возвращается в исходный топик, где её снова обработает основной слушатель
+    @KafkaListener(topics = "#{@retryTopicNames}",
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "retryRelayContainerFactory")
+    public void relay(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        long remaining = RetryTopics.dueAt(record.headers()) - System.currentTimeMillis();
+        if (remaining > 0) {
+            acknowledgment.nack(Duration.ofMillis(Math.min(remaining, MAX_PAUSE_MILLIS)));
+            return;
+        }
+        String topic = RetryTopics.originalTopic(record.topic());
+        log.debug("Returning record from {} to {}: key={}, attempt={}",
+                record.topic(), topic, record.key(), RetryTopics.attempt(record.headers()));
+
+        ProducerRecord<String, byte[]> retry = new ProducerRecord<>(topic, record.partition(), record.key(), record.value(),
+                record.headers());
+        retry.headers().remove(RetryTopics.DUE_AT_HEADER);
+        this.rawKafkaTemplate.send(retry).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        acknowledgment.acknowledge();
+    }
+
+}
\ No newline at end of file
@@ -1,77 +1,181 @@
 package ru.mirea.newrav1k.transactionservice.controller.kafka.consumer;
 
+import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.concurrent.KeyOrderedExecutor;
 import ru.mirea.newrav1k.transactionservice.event.BalanceUpdateFailureEvent;
 import ru.mirea.newrav1k.transactionservice.event.CompensateDifferenceAmountEvent;
 import ru.mirea.newrav1k.transactionservice.event.CompensateFailureEvent;
+import ru.mirea.newrav1k.transactionservice.event.TransactionAcceptedEvent;
 import ru.mirea.newrav1k.transactionservice.event.TransactionCompensateEvent;
+import ru.mirea.newrav1k.transactionservice.event.TransactionImportBalanceEvent;
 import ru.mirea.newrav1k.transactionservice.event.TransactionSuccessCreatedEvent;
-import ru.mirea.newrav1k.transactionservice.model.entity.ProcessedEvent;
+import ru.mirea.newrav1k.transactionservice.exception.AccountOperationRejectedException;
 import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.security.HeaderAuthenticationDetails;
 import ru.mirea.newrav1k.transactionservice.service.BalanceService;
 import ru.mirea.newrav1k.transactionservice.service.ProcessedEventService;
+import ru.mirea.newrav1k.transactionservice.service.TransactionBatchService;
 import ru.mirea.newrav1k.transactionservice.service.TransactionService;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TransactionConsumerHandler {
 
+    private static final List<GrantedAuthority> WORKER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
     private final ProcessedEventService processedEventService;
 
     private final TransactionService transactionService;
 
     private final BalanceService balanceService;
 
-    @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-successfully-created}",
-            groupId = "${transaction-service.kafka.group-id}", containerFactory = "kafkaListenerContainerFactory")
-    public void handleTransactionSuccessCreated(@Payload TransactionSuccessCreatedEvent event) {
-        log.debug("Handling TransactionSuccessCreatedEvent {}", event);
+    private final TransactionBatchService transactionBatchService;
+
+    private final KeyOrderedExecutor keyOrderedExecutor;
+
+    @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-accepted}",
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionWorkerContainerFactory")
+    public void handleTransactionAccepted(List<ConsumerRecord<String, TransactionAcceptedEvent>> records) {
+        log.debug("Handling {} TransactionAcceptedEvents", records.size());
+        this.keyOrderedExecutor.executeAll(records, this::processTransactionAccepted);
+    }
+
+    private void processTransactionAccepted(TransactionAcceptedEvent event) {
+        log.debug("Handling TransactionAcceptedEvent {}", event);
+        if (this.processedEventService.isEventProcessed(event.eventId())) {
+            log.info("TransactionAcceptedEvent {} already processed, skipping", event.eventId());
+            return;
+        }
         try {
-            this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.COMPLETED);
+            boolean processed = this.processedEventService.processOnce(event.eventId(), () -> {
+                if (!this.transactionService.isPending(event.trackerId(), event.transactionId())) {
+                    log.info("Transaction {} is no longer pending, skipping", event.transactionId());
+                    return;
+                }
+                // Без fallback updateBalance: он публикует BalanceUpdateFailureEvent на любую ошибку, включая временные
+                BigDecimal delta = event.type() == TransactionType.INCOME ? event.amount() : event.amount().negate();
+                TransactionStatus status = applyBalanceAsTracker(event.trackerId(), () ->
+                        this.balanceService.applyBalanceDelta(event.transactionId(), event.accountId(), delta));
 
-            this.processedEventService.markEventAsProcessed(new ProcessedEvent(event.eventId()));
-        } catch (DataIntegrityViolationException exception) {
-            log.info("TransactionSuccessCreatedEvent {} successfully processed, skipping", event.eventId());
+                this.transactionService.updateTransactionStatus(event.transactionId(), status);
+            });
+            if (!processed) {
+                log.info("TransactionAcceptedEvent {} successfully processed, skipping", event.eventId());
+            }
         } catch (Exception exception) {
-            log.error("TransactionSuccessCreatedEvent {} failed", event.eventId(), exception);
+            log.error("Error while handling TransactionAcceptedEvent {}", event.eventId(), exception);
             throw exception;
         }
     }
 
-    @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-balance-failure}",
-            groupId = "${transaction-service.kafka.group-id}", containerFactory = "kafkaListenerContainerFactory")
-    public void handleBalanceUpdateFailure(@Payload BalanceUpdateFailureEvent event) {
-        log.debug("Handling BalanceUpdateFailureEvent {}", event);
+    @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-import-balance}",
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionWorkerContainerFactory")
+    public void handleTransactionImportBalance(List<ConsumerRecord<String, TransactionImportBalanceEvent>> records) {
+        log.debug("Handling {} TransactionImportBalanceEvents", records.size());
+        this.keyOrderedExecutor.executeAll(records, this::processTransactionImportBalance);
+    }
+
+    private void processTransactionImportBalance(TransactionImportBalanceEvent event) {
+        log.debug("Handling TransactionImportBalanceEvent {}", event);
+        if (this.processedEventService.isEventProcessed(event.eventId())) {
+            log.info("TransactionImportBalanceEvent {} already processed, skipping", event.eventId());
+            return;
+        }
         try {
-            this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.FAILED);
+            boolean processed = this.processedEventService.processOnce(event.eventId(), () -> {
+                // Временная ошибка уходит на повтор, а не переводит все строки импорта по счёту в FAILED:
+                // operationId стабилен, поэтому уже применённое изменение account-service не применит дважды
+                TransactionStatus status = event.delta().signum() == 0
+                        ? TransactionStatus.COMPLETED
+                        : applyBalanceAsTracker(event.trackerId(), () ->
+                        this.balanceService.applyBalanceDelta(event.operationId(), event.accountId(), event.delta()));
 
-            this.processedEventService.markEventAsProcessed(new ProcessedEvent(event.eventId()));
-        } catch (DataIntegrityViolationException exception) {
-            log.info("TransactionBalanceFailureEvent {} successfully processed, skipping", event.eventId());
+                this.transactionBatchService.completeImportedTransactions(event.importId(), event.accountId(), status);
+            });
+            if (!processed) {
+                log.info("TransactionImportBalanceEvent {} successfully processed, skipping", event.eventId());
+            }
         } catch (Exception exception) {
-            log.error("Error while handling BalanceUpdateFailureEvent {}", event.eventId(), exception);
+            log.error("Error while handling TransactionImportBalanceEvent {}", event.eventId(), exception);
             throw exception;
         }
     }
 
+    @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-successfully-created}",
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionStatusBatchContainerFactory")
+    public void handleTransactionSuccessCreated(@Payload List<TransactionSuccessCreatedEvent> events) {
+        log.debug("Handling {} TransactionSuccessCreatedEvents", events.size());
+        Map<UUID, UUID> transactionIdsByEventId = new LinkedHashMap<>();
+        events.forEach(event -> transactionIdsByEventId.put(event.eventId(), event.transactionId()));
+        Set<UUID> missingEventIds;
+        try {
+            missingEventIds = this.transactionBatchService.applyStatusEvents(transactionIdsByEventId, TransactionStatus.COMPLETED);
+        } catch (Exception exception) {
+            log.error("TransactionSuccessCreatedEvent batch of {} failed", events.size(), exception);
+            throw exception;
+        }
+        failOnFirstMissing(events, TransactionSuccessCreatedEvent::eventId, missingEventIds);
+    }
+
+    @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-balance-failure}",
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionStatusBatchContainerFactory")
+    public void handleBalanceUpdateFailure(@Payload List<BalanceUpdateFailureEvent> events) {
+        log.debug("Handling {} BalanceUpdateFailureEvents", events.size());
+        Map<UUID, UUID> transactionIdsByEventId = new LinkedHashMap<>();
+        events.forEach(event -> transactionIdsByEventId.put(event.eventId(), event.transactionId()));
+        Set<UUID> missingEventIds;
+        try {
+            missingEventIds = this.transactionBatchService.applyStatusEvents(transactionIdsByEventId, TransactionStatus.FAILED);
+        } catch (Exception exception) {
+            log.error("Error while handling BalanceUpdateFailureEvent batch of {}", events.size(), exception);
+            throw exception;
+        }
+        failOnFirstMissing(events, BalanceUpdateFailureEvent::eventId, missingEventIds);
+    }
+
     @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-compensate}",
-            groupId = "${transaction-service.kafka.group-id}", containerFactory = "kafkaListenerContainerFactory")
-    public void handleCompensateTransaction(@Payload TransactionCompensateEvent event) {
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionWorkerContainerFactory")
+    public void handleCompensateTransaction(List<ConsumerRecord<String, TransactionCompensateEvent>> records) {
+        log.debug("Handling {} TransactionCompensateEvents", records.size());
+        this.keyOrderedExecutor.executeAll(records, this::processCompensateTransaction);
+    }
+
+    private void processCompensateTransaction(TransactionCompensateEvent event) {
         log.debug("Handling TransactionCompensateEvent {}", event);
+        if (this.processedEventService.isEventProcessed(event.compensationId())) {
+            log.info("TransactionCompensateEvent {} already processed, skipping", event.compensationId());
+            return;
+        }
         try {
-            this.balanceService.compensateTransaction(event.transactionId(), event.accountId(), event.type(), event.amount());
-
-            this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.CANCELLED);
+            boolean processed = this.processedEventService.processOnce(event.compensationId(), () -> {
+                this.balanceService.compensateTransaction(event.transactionId(), event.accountId(), event.type(), event.amount());
 
-            this.processedEventService.markEventAsProcessed(new ProcessedEvent(event.compensationId()));
-        } catch (DataIntegrityViolationException exception) {
-            log.info("TransactionCompensateEvent {} successfully processed, skipping", event.compensationId());
+                this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.CANCELLED);
+            });
+            if (!processed) {
+                log.info("TransactionCompensateEvent {} successfully processed, skipping", event.compensationId());
+            }
         } catch (Exception exception) {
             log.error("Error while handling TransactionCompensateEvent {}", event.compensationId(), exception);
             throw exception;
@@ -79,22 +183,32 @@ public class TransactionConsumerHandler {
     }
 
     @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-compensate-failure}",
-            groupId = "${transaction-service.kafka.group-id}", containerFactory = "kafkaListenerContainerFactory")
-    public void handleCompensateFailure(@Payload CompensateFailureEvent event) {
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionWorkerContainerFactory")
+    public void handleCompensateFailure(List<ConsumerRecord<String, CompensateFailureEvent>> records) {
+        log.debug("Handling {} CompensateFailureEvents", records.size());
+        this.keyOrderedExecutor.executeAll(records, this::processCompensateFailure);
+    }
+
+    private void processCompensateFailure(CompensateFailureEvent event) {
         log.debug("Handling CompensateFailureEvent {}", event);
+        if (this.processedEventService.isEventProcessed(event.compensationId())) {
+            log.info("CompensateFailureEvent {} already processed, skipping", event.compensationId());
+            return;
+        }
         try {
-            this.balanceService.compensateTransaction(
-                    event.compensationId(),
-                    event.accountId(),
-                    event.transactionType(),
-                    event.amount()
-            );
-
-            this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.FAILED);
-
-            this.processedEventService.markEventAsProcessed(new ProcessedEvent(event.compensationId()));
-        } catch (DataIntegrityViolationException exception) {
-            log.info("CompensateFailureEvent {} successfully processed, skipping", event.compensationId());
+            boolean processed = this.processedEventService.processOnce(event.compensationId(), () -> {
+                this.balanceService.compensateTransaction(
+                        event.compensationId(),
+                        event.accountId(),
+                        event.transactionType(),
+                        event.amount()
+                );
+
+                this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.FAILED);
+            });
+            if (!processed) {
+                log.info("CompensateFailureEvent {} successfully processed, skipping", event.compensationId());
+            }
         } catch (Exception exception) {
             log.error("Error while handling CompensateFailureEvent {}", event.compensationId(), exception);
             throw exception;
@@ -102,27 +216,79 @@ public class TransactionConsumerHandler {
     }
 
     @KafkaListener(topics = "${transaction-service.kafka.topics.transaction-compensate-difference-amount}",
-            groupId = "${transaction-service.kafka.group-id}", containerFactory = "kafkaListenerContainerFactory")
-    public void handleTransactionCompensateDifferenceAmount(@Payload CompensateDifferenceAmountEvent event) {
+            groupId = "${transaction-service.kafka.group-id}", containerFactory = "transactionWorkerContainerFactory")
+    public void handleTransactionCompensateDifferenceAmount(List<ConsumerRecord<String, CompensateDifferenceAmountEvent>> records) {
+        log.debug("Handling {} CompensateDifferenceAmountEvents", records.size());
+        this.keyOrderedExecutor.executeAll(records, this::processTransactionCompensateDifferenceAmount);
+    }
+
+    private void processTransactionCompensateDifferenceAmount(CompensateDifferenceAmountEvent event) {
         log.debug("Handling CompensateDifferenceAmountEvent {}", event);
+        if (this.processedEventService.isEventProcessed(event.compensationId())) {
+            log.info("CompensateDifferenceAmountEvent {} already processed, skipping", event.compensationId());
+            return;
+        }
         try {
-            this.balanceService.compensateDifferenceAmount(
-                    event.compensationId(),
-                    event.accountId(),
-                    event.transactionType(),
-                    event.oldAmount(),
-                    event.newAmount()
-            );
-
-            this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.COMPLETED);
-
-            this.processedEventService.markEventAsProcessed(new ProcessedEvent(event.compensationId()));
-        } catch (DataIntegrityViolationException exception) {
-            log.info("CompensateDifferenceAmountEvent {} successfully processed, skipping", event.compensationId());
+            boolean processed = this.processedEventService.processOnce(event.compensationId(), () -> {
+                this.balanceService.compensateDifferenceAmount(
+                        event.compensationId(),
+                        event.accountId(),
+                        event.transactionType(),
+                        event.oldAmount(),
+                        event.newAmount()
+                );
+
+                this.transactionService.updateTransactionStatus(event.transactionId(), TransactionStatus.COMPLETED);
+            });
+            if (!processed) {
+                log.info("CompensateDifferenceAmountEvent {} successfully processed, skipping", event.compensationId());
+            }
         } catch (Exception exception) {
             log.error("Error while handling CompensateDifferenceAmountEvent {}", event.compensationId(), exception);
             throw exception;
         }
     }
 
+    // Событие пришло раньше коммита транзакции: записи до него закоммитятся, начиная с него - уйдут в retry-топик,
+    // а уже обработанные из хвоста пачки отсеются по processed events
+    private <T> void failOnFirstMissing(List<T> events, Function<T, UUID> eventId, Set<UUID> missingEventIds) {
+        if (missingEventIds.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < events.size(); i++) {
+            if (missingEventIds.contains(eventId.apply(events.get(i)))) {
+                throw new BatchListenerFailedException("Transaction of event " + eventId.apply(events.get(i)) + " not found", i);
+            }
+        }
+    }
+
+    private TransactionStatus applyBalanceAsTracker(UUID trackerId, Runnable balanceOperation) {
+        // Feign-клиент берёт X-Tracker-* заголовки из SecurityContext, которого в потоке консьюмера нет
+        HeaderAuthenticationDetails details = new HeaderAuthenticationDetails(trackerId, WORKER_AUTHORITIES);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, WORKER_AUTHORITIES));
+        try {
+            balanceOperation.run();
+            return TransactionStatus.COMPLETED;
+        } catch (AccountOperationRejectedException | FeignException exception) {
+            if (!isBusinessRejection(exception)) {
+                throw exception;
+            }
+            log.warn("Balance operation rejected for tracker {}", trackerId, exception);
+            return TransactionStatus.FAILED;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // Окончателен только отказ account-service (4xx). Таймауты, 5xx, недоступность и открытый circuit breaker
+    // уходят в retry-топики: повтор безопасен, account-service отбрасывает уже применённый transactionId
+    private static boolean isBusinessRejection(RuntimeException exception) {
+        if (exception instanceof AccountOperationRejectedException rejectedException) {
+            return rejectedException.getStatus().is4xxClientError();
+        }
+        return exception instanceof FeignException feignException
+                && feignException.status() >= 400 && feignException.status() < 500;
+    }
+
 }
\ No newline at end of file
@@ -1,49 +1,73 @@
 package ru.mirea.newrav1k.transactionservice.controller.kafka.producer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
 import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.EventEncodingProperties;
+import ru.mirea.newrav1k.transactionservice.event.EventTypes;
 import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.EventEncoding;
+import ru.mirea.newrav1k.transactionservice.serialization.AvroEventCodec;
 
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TransactionProducerHandler {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
+
+    private final AvroEventCodec avroEventCodec;
+
+    private final EventEncodingProperties encodingProperties;
 
     private final ObjectMapper objectMapper;
 
-    public void send(OutboxEvent event) {
+    public CompletableFuture<SendResult<String, byte[]>> send(OutboxEvent event) {
         log.debug("Sending event: event={}, topic={}", event, event.getTopic());
+        if (!EventTypes.isKafkaEventType(event.getEventType())) {
+            log.error("Unknown event type: type={}", event.getEventType());
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown event type " + event.getEventType()));
+        }
         try {
-            Class<?> clazz = Class.forName("ru.mirea.newrav1k.transactionservice.event." + event.getEventType());
-            Object object = this.objectMapper.readValue(event.getPayload(), clazz);
-            this.kafkaTemplate.send(event.getTopic(), event.getAggregateId().toString(), object)
-                    .get(10L, TimeUnit.SECONDS);
-            log.info("Successfully sent event: event={}, topic={}", event, event.getTopic());
-        } catch (ClassNotFoundException exception) {
-            log.error("Class not found: class={}", event.getEventType(), exception);
-            throw new IllegalArgumentException("Event class not found", exception);
-        } catch (JsonProcessingException exception) {
-            log.error("Could not convert event to JSON: class={}, payload={}", event.getEventType(), event.getPayload(), exception);
-            throw new IllegalArgumentException("Event payload could not be converted to JSON", exception);
-        } catch (TimeoutException exception) {
-            log.error("Timed out: class={}, payload={}", event.getEventType(), event.getPayload(), exception);
-            throw new IllegalArgumentException("Timed out", exception);
-        } catch (InterruptedException exception) {
-            log.error("Interrupted exception: event={}", event, exception);
-            throw new IllegalArgumentException("Interrupted while sending", exception);
+            return this.rawKafkaTemplate.send(buildRecord(event))
+                    .whenComplete((result, exception) -> {
+                        if (exception == null) {
+                            log.info("Successfully sent event: event={}, topic={}", event, event.getTopic());
+                        } else {
+                            log.error("Failed to send event: event={}, topic={}", event, event.getTopic(), exception);
+                        }
+                    });
         } catch (Exception exception) {
             log.error("Unexpected exception: event={}", event, exception);
-            throw new IllegalArgumentException("Exception while sending", exception);
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Exception while sending", exception));
+        }
+    }
+
+    // Видимость пакета - для бенчмарка TransactionProducerHandlerBenchmark
+    ProducerRecord<String, byte[]> buildRecord(OutboxEvent event) throws IOException {
+        Headers headers = new RecordHeaders();
+        headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        byte[] value;
+        if (this.encodingProperties.format() == EventEncoding.AVRO && this.avroEventCodec.supports(event.getEventType())) {
+            // В outbox событие хранится в JSON независимо от формата, перекодируем его при отправке
+            Object payload = this.objectMapper.readValue(event.getPayload(), EventTypes.KAFKA_EVENT_TYPES.get(event.getEventType()));
+            value = this.avroEventCodec.encode(event.getEventType(), payload, headers);
+        } else {
+            // Payload в outbox уже сериализован в JSON, поэтому отправляем его как есть, а тип передаём в заголовке
+            value = event.getPayload().getBytes(StandardCharsets.UTF_8);
         }
+        return new ProducerRecord<>(event.getTopic(), null, event.getMessageKey(), value, headers);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ru.mirea.newrav1k.transactionservice.controller.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.mirea.newrav1k.transactionservice.model.dto.DeadLetterReplayResponse;
+import ru.mirea.newrav1k.transactionservice.service.DeadLetterReplayService;
+
+import java.util.UUID;
+
+@Tag(name = "Dead Letter Admin Controller",
+        description = "Контроллер для повторной отправки событий из dead letter топиков")
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class DeadLetterAdminController {
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    @Operation(summary = "Повторная отправка dead letter",
+            description = """
+                    Возвращает события из топика <topic>.DLT в исходный топик после устранения инцидента.
+                    Доступно только администраторам.
+                    
+                    **Особенности:**
+                            - Отправка выполняется в фоне: ответ 202 содержит идентификатор задачи для проверки статуса
+                            - Одновременно выполняется только одна отправка на все экземпляры сервиса
+                            - Отправка ограничена по скорости, чтобы не перегрузить account-service
+                            - Позиция сохраняется в отдельной группе: повторный вызов продолжает с места остановки
+                            - Обрабатываются только события, попавшие в DLT до начала вызова
+                            - Счётчик попыток сбрасывается, событие снова проходит все ступени повтора
+                    """,
+            parameters = {
+                    @Parameter(name = "topic", description = "Исходный топик", example = "transaction.transaction.compensate.v1"),
+                    @Parameter(name = "limit", description = "Максимум событий за вызов", example = "1000"),
+                    @Parameter(name = "rate", description = "Событий в секунду (по умолчанию из настроек)", example = "50")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Повторная отправка запущена в фоне"),
+                    @ApiResponse(responseCode = "400", description = "Неизвестный топик"),
+                    @ApiResponse(responseCode = "409", description = "Повторная отправка уже выполняется")
+            }
+    )
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replayDeadLetters(@RequestParam("topic") String topic,
+                                                                      @RequestParam(value = "limit", defaultValue = "1000") @Min(1) @Max(100000) int limit,
+                                                                      @RequestParam(value = "rate", required = false) @Min(1) @Max(10000) Integer rate,
+                                                                      UriComponentsBuilder uriBuilder) {
+        log.info("Admin request to replay dead letters: topic={}, limit={}, rate={}", topic, limit, rate);
+        DeadLetterReplayResponse response = this.deadLetterReplayService.startReplay(topic, limit, rate);
+        return ResponseEntity.accepted()
+                .location(uriBuilder
+                        .replacePath("/api/admin/dead-letters/replay/{jobId}")
+                        .build(response.jobId()))
+                .body(response);
+    }
+
+    @Operation(summary = "Статус повторной отправки dead letter",
+            description = "Возвращает состояние фоновой задачи повторной отправки: статус и число отправленных событий",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние задачи"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            }
+    )
+    @GetMapping("/replay/{jobId}")
+    public ResponseEntity<DeadLetterReplayResponse> getReplayJob(@PathVariable("jobId") UUID jobId) {
+        log.debug("Admin request for dead letter replay job {}", jobId);
+        return ResponseEntity.ok(this.deadLetterReplayService.findJob(jobId));
+    }
+
+}
\ No newline at end of file
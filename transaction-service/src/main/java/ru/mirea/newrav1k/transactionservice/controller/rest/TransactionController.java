@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
@@ -15,6 +17,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -26,16 +30,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionBatchCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionBatchResponse;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCursorPage;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionImportResponse;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionSummaryResponse;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionUpdateRequest;
+import ru.mirea.newrav1k.transactionservice.model.enums.ExportFormat;
+import ru.mirea.newrav1k.transactionservice.model.enums.StatementFormat;
 import ru.mirea.newrav1k.transactionservice.security.HeaderAuthenticationDetails;
+import ru.mirea.newrav1k.transactionservice.service.TransactionBatchService;
+import ru.mirea.newrav1k.transactionservice.service.TransactionExportService;
+import ru.mirea.newrav1k.transactionservice.service.TransactionImportService;
 import ru.mirea.newrav1k.transactionservice.service.TransactionService;
+import ru.mirea.newrav1k.transactionservice.service.TransactionSummaryService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Transaction Controller",
@@ -47,8 +72,18 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final TransactionService transactionalService;
 
+    private final TransactionBatchService transactionBatchService;
+
+    private final TransactionSummaryService transactionSummaryService;
+
+    private final TransactionExportService transactionExportService;
+
+    private final TransactionImportService transactionImportService;
+
     // TODO: написать подробную документацию
 
     @Operation(summary = "Получение всех транзакций",
@@ -81,6 +116,83 @@ public class TransactionController {
         return new PagedModel<>(transactions);
     }
 
+    @Operation(summary = "Получение транзакций по курсору",
+            description = """
+                    Загружает транзакции с keyset-пагинацией (от новых к старым по createdAt и id).
+                    Доступно только для аутентифицированных пользователей.
+                    
+                    **Особенности:**
+                            - Включается параметром cursor (пустое значение - первая страница)
+                            - Для следующей страницы передаётся nextCursor из предыдущего ответа
+                            - Не выполняет подсчёт общего количества записей
+                    """,
+            parameters = {
+                    @Parameter(name = "trackerId", hidden = true),
+                    @Parameter(name = "cursor", description = "Непрозрачный курсор следующей страницы", example = ""),
+                    @Parameter(name = "size", description = "Размер страницы", example = "20")
+            }
+    )
+    @GetMapping(params = "cursor")
+    public TransactionCursorPage getAllTransactionsByCursor(@AuthenticationPrincipal HeaderAuthenticationDetails authenticationDetails,
+                                                            @ParameterObject @Valid @ModelAttribute TransactionFilter filter,
+                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size) {
+        log.info("Getting transactions by cursor: filter={}, cursor={}", filter, cursor);
+        return this.transactionalService.findAllByTrackerId(authenticationDetails.getTrackerId(), filter, cursor, size);
+    }
+
+    @Operation(summary = "Экспорт транзакций",
+            description = """
+                    Выгружает все транзакции пользователя, подходящие под фильтр, потоком в формате NDJSON или CSV.
+                    Доступно только для аутентифицированных пользователей.
+                    
+                    **Особенности:**
+                            - Строки читаются серверным курсором порциями и сразу пишутся в ответ
+                            - Потребление памяти не зависит от количества транзакций
+                    """,
+            parameters = {
+                    @Parameter(name = "trackerId", hidden = true),
+                    @Parameter(name = "format", description = "Формат выгрузки (NDJSON или CSV)", example = "CSV")
+            }
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@AuthenticationPrincipal HeaderAuthenticationDetails authenticationDetails,
+                                                                    @ParameterObject @Valid @ModelAttribute TransactionFilter filter,
+                                                                    @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format) {
+        log.info("Exporting transactions: filter={}, format={}", filter, format);
+        UUID trackerId = authenticationDetails.getTrackerId();
+        StreamingResponseBody body = outputStream ->
+                this.transactionExportService.export(trackerId, filter, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Получение сводки доходов и расходов",
+            description = """
+                    Загружает помесячную сводку доходов и расходов пользователя в разрезе категорий.
+                    Учитываются только завершённые (COMPLETED) транзакции.
+                    Доступно только для аутентифицированных пользователей.
+                    """,
+            parameters = {
+                    @Parameter(name = "from", description = "Месяц начала периода (включительно), по умолчанию - 11 месяцев назад", example = "2025-01"),
+                    @Parameter(name = "to", description = "Месяц конца периода (включительно), по умолчанию - текущий месяц", example = "2025-12")
+            }
+    )
+    @GetMapping("/summary")
+    public ResponseEntity<List<TransactionSummaryResponse>> getTransactionSummary(@AuthenticationPrincipal HeaderAuthenticationDetails authenticationDetails,
+                                                                                  @RequestParam(value = "from", required = false) YearMonth from,
+                                                                                  @RequestParam(value = "to", required = false) YearMonth to) {
+        log.info("Getting transaction summary: from={}, to={}", from, to);
+        YearMonth monthTo = to != null ? to : YearMonth.now(ZoneOffset.UTC);
+        YearMonth monthFrom = from != null ? from : monthTo.minusMonths(11);
+        List<TransactionSummaryResponse> summary = this.transactionSummaryService
+                .findAllByTrackerId(authenticationDetails.getTrackerId(), monthFrom, monthTo);
+        return ResponseEntity.ok(summary);
+    }
+
     @Operation(summary = "Получение конкретной транзакции",
             description = """
                     Загружает транзакцию пользователя по её уникальному идентификатору.
@@ -112,17 +224,31 @@ public class TransactionController {
                                     - Если сумма положительная производится пополнение счета
                                     - Если сумма отрицательная производится снятие денег со счета
                     
+                    **Асинхронный режим:** при заголовке `Prefer: respond-async` транзакция сохраняется
+                    в статусе PENDING и возвращается 202 Accepted с адресом для проверки статуса в Location.
+                    Обновление баланса и перевод в COMPLETED/FAILED выполняются в фоне.
+                    
                     Доступно только для аутентифицированных пользователей.
                     """,
             responses = {
-
+                    @ApiResponse(responseCode = "201", description = "Транзакция успешно создана"),
+                    @ApiResponse(responseCode = "202", description = "Транзакция принята в асинхронную обработку")
             }
     )
     @PostMapping
     public ResponseEntity<TransactionResponse> createTransaction(@AuthenticationPrincipal HeaderAuthenticationDetails authenticationDetails,
                                                                  @Valid @RequestBody TransactionCreateRequest request,
+                                                                 @RequestHeader(value = "Prefer", required = false) String prefer,
                                                                  UriComponentsBuilder uriBuilder) {
         log.info("Creating transaction: request={}", request);
+        if (RESPOND_ASYNC.equalsIgnoreCase(prefer)) {
+            TransactionResponse transaction = this.transactionalService.accept(authenticationDetails.getTrackerId(), request);
+            return ResponseEntity.accepted()
+                    .location(uriBuilder
+                            .replacePath("/api/transactions/{transactionId}")
+                            .build(transaction.id()))
+                    .body(transaction);
+        }
         TransactionResponse transaction = this.transactionalService.create(authenticationDetails.getTrackerId(), request);
         return ResponseEntity.created(uriBuilder
                         .replacePath("/api/transaction/{transactionId}")
@@ -130,6 +256,70 @@ public class TransactionController {
                 .body(transaction);
     }
 
+    @Operation(summary = "Пакетное создание транзакций",
+            description = """
+                    Создаёт пакет транзакций (например, при импорте банковской выписки).
+                    
+                    **Особенности:**
+                            - Транзакции сохраняются пакетными INSERT-ами JDBC в статусе PENDING
+                            - Изменения баланса суммируются по счёту и применяются в фоне одним событием на счёт
+                            - Если account-service отклонил изменение счёта, все транзакции этого счёта переводятся в FAILED
+                    
+                    Доступно только для аутентифицированных пользователей.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Пакет транзакций принят, баланс обновляется в фоне"),
+                    @ApiResponse(responseCode = "400", description = "Некорректный запрос")
+            }
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponse> createTransactionBatch(@AuthenticationPrincipal HeaderAuthenticationDetails authenticationDetails,
+                                                                           @Valid @RequestBody TransactionBatchCreateRequest request) {
+        log.info("Creating transaction batch: size={}", request.transactions().size());
+        TransactionBatchResponse response =
+                this.transactionBatchService.createBatch(authenticationDetails.getTrackerId(), request.transactions());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @Operation(summary = "Импорт банковской выписки",
+            description = """
+                    Импортирует транзакции из банковской выписки в формате CSV или OFX.
+                    
+                    **Особенности:**
+                            - Файл разбирается потоком и загружается во временную таблицу через COPY
+                            - Корректные строки переносятся в транзакции одним запросом в статусе PENDING
+                            - Изменения баланса суммируются по счёту и применяются в фоне одним событием на счёт
+                            - Некорректные строки пропускаются и возвращаются в ответе с номером строки
+                    
+                    **CSV:** заголовок с колонками amount (обязательна), date, type, categoryId, accountId, description,
+                    tags (через ";"). Без колонки type тип определяется знаком суммы.
+                    
+                    Доступно только для аутентифицированных пользователей.
+                    """,
+            parameters = {
+                    @Parameter(name = "format", description = "Формат выписки (CSV или OFX)", example = "CSV"),
+                    @Parameter(name = "accountId", description = "Счёт по умолчанию для строк без accountId"),
+                    @Parameter(name = "categoryId", description = "Категория по умолчанию для строк без categoryId")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Выписка импортирована, баланс обновляется в фоне"),
+                    @ApiResponse(responseCode = "400", description = "Файл выписки не удалось разобрать")
+            }
+    )
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TransactionImportResponse> importTransactions(@AuthenticationPrincipal HeaderAuthenticationDetails authenticationDetails,
+                                                                        @RequestPart("file") MultipartFile file,
+                                                                        @RequestParam(value = "format", defaultValue = "CSV") StatementFormat format,
+                                                                        @RequestParam(value = "accountId", required = false) UUID accountId,
+                                                                        @RequestParam(value = "categoryId", required = false) UUID categoryId) throws IOException {
+        log.info("Importing statement: format={}, size={}", format, file.getSize());
+        try (InputStream inputStream = file.getInputStream()) {
+            TransactionImportResponse response = this.transactionImportService.importStatement(
+                    authenticationDetails.getTrackerId(), format, inputStream, accountId, categoryId);
+            return ResponseEntity.accepted().body(response);
+        }
+    }
+
     @Operation(summary = "Обновление транзакции",
             description = "Обновляет транзакцию по её уникальному идентификатору")
     @ApiResponses(value = {
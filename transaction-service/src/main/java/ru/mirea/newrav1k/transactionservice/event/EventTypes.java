@@ -0,0 +1,35 @@
+package ru.mirea.newrav1k.transactionservice.event;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class EventTypes {
+
+    // Имя типа события в outbox и в заголовке __TypeId__ - простое имя класса
+    public static final Map<String, Class<?>> KAFKA_EVENT_TYPES = Stream.of(
+                    BalanceUpdateFailureEvent.class,
+                    CompensateDifferenceAmountEvent.class,
+                    CompensateFailureEvent.class,
+                    TransactionAcceptedEvent.class,
+                    TransactionCompensateEvent.class,
+                    TransactionImportBalanceEvent.class,
+                    TransactionSuccessCreatedEvent.class
+            )
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, type -> type));
+
+    public static boolean isKafkaEventType(String eventType) {
+        return KAFKA_EVENT_TYPES.containsKey(eventType);
+    }
+
+    public static String toTypeMappings() {
+        return KAFKA_EVENT_TYPES.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue().getName())
+                .collect(Collectors.joining(","));
+    }
+
+}
\ No newline at end of file
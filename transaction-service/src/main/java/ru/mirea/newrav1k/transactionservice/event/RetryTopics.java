@@ -0,0 +1,61 @@
+package ru.mirea.newrav1k.transactionservice.event;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RetryTopics {
+
+    // Номер следующей ступени повтора: запись из основного топика без заголовка уходит на ступень 0
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+
+    // Момент (epoch millis), раньше которого запись ступени повтора не возвращается в основной топик
+    public static final String DUE_AT_HEADER = "x-retry-due-at";
+
+    public static final String DLT_SUFFIX = ".DLT";
+
+    private static final String RETRY_SUFFIX = ".retry-";
+
+    public static String retryTopic(String topic, int attempt) {
+        return topic + RETRY_SUFFIX + attempt;
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + DLT_SUFFIX;
+    }
+
+    public static String originalTopic(String topic) {
+        int retrySuffix = topic.lastIndexOf(RETRY_SUFFIX);
+        if (retrySuffix >= 0) {
+            return topic.substring(0, retrySuffix);
+        }
+        return topic.endsWith(DLT_SUFFIX) ? topic.substring(0, topic.length() - DLT_SUFFIX.length()) : topic;
+    }
+
+    public static int attempt(Headers headers) {
+        return (int) readLong(headers, ATTEMPT_HEADER);
+    }
+
+    public static long dueAt(Headers headers) {
+        return readLong(headers, DUE_AT_HEADER);
+    }
+
+    public static void clear(Headers headers) {
+        headers.remove(ATTEMPT_HEADER);
+        headers.remove(DUE_AT_HEADER);
+    }
+
+    public static byte[] encode(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long readLong(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header != null ? Long.parseLong(new String(header.value(), StandardCharsets.UTF_8)) : 0L;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.mirea.newrav1k.transactionservice.event;
+
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record TransactionAcceptedEvent(
+        UUID eventId,
+        UUID transactionId,
+        UUID trackerId,
+        UUID accountId,
+        TransactionType type,
+        BigDecimal amount
+) {
+
+}
@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.transactionservice.event;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record TransactionImportBalanceEvent(
+        UUID eventId,
+        UUID operationId,
+        UUID importId,
+        UUID trackerId,
+        UUID accountId,
+        BigDecimal delta
+) {
+
+}
\ No newline at end of file
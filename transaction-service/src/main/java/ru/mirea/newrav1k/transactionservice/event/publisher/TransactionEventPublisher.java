@@ -10,14 +10,17 @@ import ru.mirea.newrav1k.transactionservice.configuration.properties.Transaction
 import ru.mirea.newrav1k.transactionservice.event.BalanceUpdateFailureEvent;
 import ru.mirea.newrav1k.transactionservice.event.CompensateDifferenceAmountEvent;
 import ru.mirea.newrav1k.transactionservice.event.CompensateFailureEvent;
+import ru.mirea.newrav1k.transactionservice.event.TransactionAcceptedEvent;
 import ru.mirea.newrav1k.transactionservice.event.TransactionCancelledEvent;
 import ru.mirea.newrav1k.transactionservice.event.TransactionCompensateEvent;
 import ru.mirea.newrav1k.transactionservice.event.TransactionCreatedEvent;
+import ru.mirea.newrav1k.transactionservice.event.TransactionImportBalanceEvent;
 import ru.mirea.newrav1k.transactionservice.event.TransactionSuccessCreatedEvent;
 import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
 import ru.mirea.newrav1k.transactionservice.service.OutboxService;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @Slf4j
@@ -76,7 +79,41 @@ public class TransactionEventPublisher {
         this.eventPublisher.publishEvent(event);
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Transactional
+    public void publishExternalTransactionAcceptedEvent(UUID transactionId, UUID trackerId, UUID accountId,
+                                                        TransactionType transactionType, BigDecimal amount) {
+        log.debug("Publishing TransactionAcceptedEvent");
+        TransactionAcceptedEvent event = new TransactionAcceptedEvent(
+                UUID.randomUUID(),
+                transactionId,
+                trackerId,
+                accountId,
+                transactionType,
+                amount
+        );
+
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId, accountId,
+                this.topics.transactionAccepted(), TransactionAcceptedEvent.class.getSimpleName(), event);
+    }
+
+    @Transactional
+    public void publishExternalTransactionImportBalanceEvent(UUID importId, UUID trackerId, UUID accountId, BigDecimal delta) {
+        log.debug("Publishing TransactionImportBalanceEvent");
+        TransactionImportBalanceEvent event = new TransactionImportBalanceEvent(
+                UUID.randomUUID(),
+                importBalanceOperationId(importId, accountId),
+                importId,
+                trackerId,
+                accountId,
+                delta
+        );
+
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, event.operationId(), accountId,
+                this.topics.transactionImportBalance(), TransactionImportBalanceEvent.class.getSimpleName(), event);
+    }
+
+    // Событие пишется в транзакцию создания: NOTIFY уйдёт релею только вместе с коммитом строки транзакции
+    @Transactional
     public void publishExternalTransactionSuccessCreatedEvent(UUID transactionId) {
         log.debug("Publishing TransactionSuccessCreatedEvent");
         TransactionSuccessCreatedEvent event = new TransactionSuccessCreatedEvent(
@@ -84,7 +121,7 @@ public class TransactionEventPublisher {
                 transactionId
         );
 
-        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId,
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId, transactionId,
                 this.topics.transactionSuccessfullyCreated(), TransactionSuccessCreatedEvent.class.getSimpleName(), event);
     }
 
@@ -100,7 +137,7 @@ public class TransactionEventPublisher {
                 amount
         );
 
-        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId,
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId, accountId,
                 this.topics.transactionBalanceFailure(), BalanceUpdateFailureEvent.class.getSimpleName(), event);
     }
 
@@ -116,7 +153,7 @@ public class TransactionEventPublisher {
                 amount
         );
 
-        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId,
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId, accountId,
                 this.topics.transactionCompensate(), TransactionCompensateEvent.class.getSimpleName(), event);
     }
 
@@ -132,7 +169,7 @@ public class TransactionEventPublisher {
                 amount
         );
 
-        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId,
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId, accountId,
                 this.topics.transactionCompensateFailure(), CompensateFailureEvent.class.getSimpleName(), event);
     }
 
@@ -149,8 +186,14 @@ public class TransactionEventPublisher {
                 newAmount
         );
 
-        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId,
+        this.outboxService.saveEvent(AGGREGATE_TYPE_TRANSACTION, transactionId, accountId,
                 this.topics.transactionCompensateDifferenceAmount(), CompensateDifferenceAmountEvent.class.getSimpleName(), event);
     }
 
+    // Идентификатор операции выводится из (importId, accountId): повторная публикация того же изменения
+    // отсеется в account-service по transactionId так же, как повторная доставка события
+    private static UUID importBalanceOperationId(UUID importId, UUID accountId) {
+        return UUID.nameUUIDFromBytes(("import-balance:" + importId + ":" + accountId).getBytes(StandardCharsets.UTF_8));
+    }
+
 }
\ No newline at end of file
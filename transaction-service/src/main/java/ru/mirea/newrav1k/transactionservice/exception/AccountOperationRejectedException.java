@@ -0,0 +1,12 @@
+package ru.mirea.newrav1k.transactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Бизнес-отказ account-service по gRPC; сообщение уже локализовано на стороне account-service
+public class AccountOperationRejectedException extends TransactionServiceException {
+
+    public AccountOperationRejectedException(String message, HttpStatus status) {
+        super(message, status);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.transactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.DEAD_LETTER_REPLAY_IN_PROGRESS;
+
+public class DeadLetterReplayInProgressException extends TransactionServiceException {
+
+    public DeadLetterReplayInProgressException() {
+        super(DEAD_LETTER_REPLAY_IN_PROGRESS, HttpStatus.CONFLICT);
+    }
+
+}
\ No newline at end of file
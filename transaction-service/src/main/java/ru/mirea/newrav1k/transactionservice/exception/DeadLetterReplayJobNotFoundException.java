@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.transactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.DEAD_LETTER_REPLAY_JOB_NOT_FOUND;
+
+public class DeadLetterReplayJobNotFoundException extends TransactionServiceException {
+
+    public DeadLetterReplayJobNotFoundException() {
+        super(DEAD_LETTER_REPLAY_JOB_NOT_FOUND, HttpStatus.NOT_FOUND);
+    }
+
+}
\ No newline at end of file
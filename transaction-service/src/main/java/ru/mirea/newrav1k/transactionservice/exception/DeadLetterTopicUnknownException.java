@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.transactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.DEAD_LETTER_TOPIC_UNKNOWN;
+
+public class DeadLetterTopicUnknownException extends TransactionServiceException {
+
+    public DeadLetterTopicUnknownException() {
+        super(DEAD_LETTER_TOPIC_UNKNOWN, HttpStatus.BAD_REQUEST);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.transactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.TRANSACTION_CURSOR_INVALID;
+
+public class TransactionCursorException extends TransactionServiceException {
+
+    public TransactionCursorException() {
+        super(TRANSACTION_CURSOR_INVALID, HttpStatus.BAD_REQUEST);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.mirea.newrav1k.transactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.TRANSACTION_IMPORT_FAILED;
+
+public class TransactionImportException extends TransactionServiceException {
+
+    public TransactionImportException() {
+        super(TRANSACTION_IMPORT_FAILED, HttpStatus.BAD_REQUEST);
+    }
+
+    public TransactionImportException(Throwable cause) {
+        super(TRANSACTION_IMPORT_FAILED, cause, HttpStatus.BAD_REQUEST);
+    }
+
+}
\ No newline at end of file
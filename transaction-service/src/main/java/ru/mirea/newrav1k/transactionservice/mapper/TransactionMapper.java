@@ -1,7 +1,9 @@
 package ru.mirea.newrav1k.transactionservice.mapper;
 
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionSummaryResponse;
 import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.entity.TransactionSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 
@@ -10,4 +12,6 @@ public interface TransactionMapper {
 
     TransactionResponse toTransactionResponse(Transaction transaction);
 
+    TransactionSummaryResponse toTransactionSummaryResponse(TransactionSummary transactionSummary);
+
 }
\ No newline at end of file
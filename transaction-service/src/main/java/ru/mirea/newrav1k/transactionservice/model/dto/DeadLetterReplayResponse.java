@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import ru.mirea.newrav1k.transactionservice.model.enums.DeadLetterReplayStatus;
+
+import java.util.UUID;
+
+public record DeadLetterReplayResponse(
+        UUID jobId,
+        String topic,
+        DeadLetterReplayStatus status,
+        int replayed,
+        boolean exhausted
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TransactionBatchCreateRequest(
+        @NotEmpty(message = "error.transaction_batch_is_empty")
+        @Size(max = 20000, message = "error.transaction_batch_size_is_invalid")
+        List<@Valid TransactionCreateRequest> transactions
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TransactionBatchResponse(
+        UUID batchId,
+        int accepted,
+        List<UUID> accountIds
+) {
+
+}
\ No newline at end of file
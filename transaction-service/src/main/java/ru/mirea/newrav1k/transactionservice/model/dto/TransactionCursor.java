@@ -0,0 +1,35 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import ru.mirea.newrav1k.transactionservice.exception.TransactionCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+public record TransactionCursor(
+        Instant createdAt,
+        UUID id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = this.createdAt + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new TransactionCursor(
+                    Instant.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1))
+            );
+        } catch (RuntimeException exception) {
+            throw new TransactionCursorException();
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import java.util.List;
+
+public record TransactionCursorPage(
+        List<TransactionResponse> content,
+        String nextCursor
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import java.util.List;
+
+public record TransactionImportRejection(
+        long line,
+        List<String> errors
+) {
+
+}
\ No newline at end of file
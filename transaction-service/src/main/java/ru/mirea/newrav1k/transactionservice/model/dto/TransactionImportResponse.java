@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TransactionImportResponse(
+        UUID importId,
+        long imported,
+        long rejected,
+        List<TransactionImportRejection> rejections
+) {
+
+}
\ No newline at end of file
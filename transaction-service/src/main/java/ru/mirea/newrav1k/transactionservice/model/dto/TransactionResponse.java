@@ -1,8 +1,10 @@
 package ru.mirea.newrav1k.transactionservice.model.dto;
 
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
 import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,7 +16,9 @@ public record TransactionResponse(
         UUID categoryId,
         UUID accountId,
         String description,
-        List<String> tags
+        List<String> tags,
+        TransactionStatus status,
+        Instant createdAt
 ) {
 
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+
+import java.util.UUID;
+
+public record TransactionStatusView(
+        UUID id,
+        TransactionStatus status
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.mirea.newrav1k.transactionservice.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record TransactionSummaryResponse(
+        LocalDate month,
+        UUID categoryId,
+        BigDecimal income,
+        BigDecimal expense
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package ru.mirea.newrav1k.transactionservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.mirea.newrav1k.transactionservice.model.enums.DeadLetterReplayStatus;
+
+// Состояние фоновой повторной отправки хранится в БД: статус доступен с любого экземпляра сервиса
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "t_dead_letter_replay_jobs", schema = "transaction_management")
+public class DeadLetterReplayJob extends BaseEntity {
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "replay_limit", nullable = false)
+    private int limit;
+
+    @Column(nullable = false)
+    private int ratePerSecond;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private DeadLetterReplayStatus status;
+
+    @Column(nullable = false)
+    private int replayed;
+
+    @Column(nullable = false)
+    private boolean exhausted;
+
+}
\ No newline at end of file
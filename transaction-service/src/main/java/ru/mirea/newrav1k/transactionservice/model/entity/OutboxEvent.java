@@ -5,7 +5,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Index;
-import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,6 +26,8 @@ import java.util.UUID;
         schema = "transaction_management",
         indexes = {
                 @Index(name = "idx_outbox_event_created", columnList = "status, createdAt"),
+                @Index(name = "idx_outbox_event_aggregates", columnList = "aggregateId, eventType"),
+                @Index(name = "idx_outbox_event_keys", columnList = "messageKey, status")
         }
 )
 public class OutboxEvent extends BaseEntity {
@@ -37,14 +38,18 @@ public class OutboxEvent extends BaseEntity {
     @Column(nullable = false)
     private UUID aggregateId;
 
+    // Ключ Kafka-записи: события одного счёта попадают в одну партицию и обрабатываются по порядку
+    @Column(nullable = false)
+    private String messageKey;
+
     @Column(nullable = false)
     private String topic;
 
     @Column(nullable = false)
     private String eventType;
 
-    @Lob
-    @Column(nullable = false)
+    // text вместо @Lob: на Postgres @Lob хранится в pg_largeobject, и удаление секций оставляло бы его мусор
+    @Column(nullable = false, columnDefinition = "text")
     private String payload;
 
     @Enumerated(EnumType.STRING)
@@ -13,6 +13,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
 import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
 
@@ -32,7 +33,9 @@ import java.util.UUID;
         indexes = {
                 @Index(name = "idx_transaction_ids", columnList = "id"),
                 @Index(name = "idx_transaction_tracker_ids", columnList = "trackerId"),
-                @Index(name = "idx_transaction_statuses", columnList = "status")
+                @Index(name = "idx_transaction_statuses", columnList = "status"),
+                @Index(name = "idx_transaction_tracker_created_ids", columnList = "trackerId, createdAt DESC, id DESC"),
+                @Index(name = "idx_transaction_import_account_ids", columnList = "importId, accountId")
         }
 )
 public class Transaction extends BaseEntity {
@@ -60,6 +63,7 @@ public class Transaction extends BaseEntity {
     private String description;
 
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
             name = "t_transaction_tags",
             schema = "transaction_management",
@@ -71,4 +75,7 @@ public class Transaction extends BaseEntity {
     @Column(name = "status", nullable = false)
     private TransactionStatus status;
 
+    @Column(name = "import_id")
+    private UUID importId;
+
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package ru.mirea.newrav1k.transactionservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "t_transaction_summaries",
+        schema = "transaction_management",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_transaction_summary_tracker_month_category",
+                        columnNames = {"tracker_id", "month_start", "category_id"})
+        }
+)
+public class TransactionSummary {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tracker_id", nullable = false)
+    private UUID trackerId;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "category_id", nullable = false)
+    private UUID categoryId;
+
+    @Column(name = "income", scale = 2, precision = 19, nullable = false)
+    private BigDecimal income;
+
+    @Column(name = "expense", scale = 2, precision = 19, nullable = false)
+    private BigDecimal expense;
+
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package ru.mirea.newrav1k.transactionservice.model.enums;
+
+public enum DeadLetterReplayStatus {
+    RUNNING, COMPLETED, FAILED
+}
\ No newline at end of file
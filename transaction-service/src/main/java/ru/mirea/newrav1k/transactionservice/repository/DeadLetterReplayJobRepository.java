@@ -0,0 +1,36 @@
+package ru.mirea.newrav1k.transactionservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mirea.newrav1k.transactionservice.model.entity.DeadLetterReplayJob;
+import ru.mirea.newrav1k.transactionservice.model.enums.DeadLetterReplayStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface DeadLetterReplayJobRepository extends JpaRepository<DeadLetterReplayJob, UUID> {
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update DeadLetterReplayJob j
+            set j.status = :status, j.updatedAt = :updatedAt, j.version = j.version + 1
+            where j.status = :expectedStatus
+            """)
+    int updateStatusByStatus(DeadLetterReplayStatus expectedStatus, DeadLetterReplayStatus status, Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update DeadLetterReplayJob j
+            set j.status = :status, j.replayed = :replayed, j.exhausted = :exhausted,
+                j.updatedAt = :updatedAt, j.version = j.version + 1
+            where j.id = :jobId
+            """)
+    int updateProgress(UUID jobId, DeadLetterReplayStatus status, int replayed, boolean exhausted, Instant updatedAt);
+
+}
\ No newline at end of file
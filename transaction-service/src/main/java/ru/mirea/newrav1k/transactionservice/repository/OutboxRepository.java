@@ -1,20 +1,51 @@
 package ru.mirea.newrav1k.transactionservice.repository;
 
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
 import ru.mirea.newrav1k.transactionservice.model.enums.OutboxStatus;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface OutboxRepository extends JpaRepository<OutboxEvent, UUID> {
 
-    @EntityGraph(attributePaths = {"payload"})
-    List<OutboxEvent> findTop50ByStatusOrderByCreatedAtAsc(OutboxStatus status);
+    // Событие забирается, только если у его ключа нет события, которое сейчас отправляется или ждёт повтора после сбоя:
+    // так ключ в каждый момент публикует один воркер, а упавшее событие уходит раньше следующих за ним.
+    // FAILED и зависшие IN_PROGRESS забираются повторно через staleBefore
+    @Query(value = """
+            select * from transaction_management.t_outbox_events e
+            where (e.status = 'NEW' or (e.status in ('IN_PROGRESS', 'FAILED') and e.updated_at < :staleBefore))
+              and not exists (
+                  select 1 from transaction_management.t_outbox_events p
+                  where p.message_key = e.message_key
+                    and p.status in ('IN_PROGRESS', 'FAILED')
+                    and p.updated_at >= :staleBefore
+              )
+            order by e.created_at, e.id
+            limit :batchSize
+            for update
+            """, nativeQuery = true)
+    List<OutboxEvent> findBatchForPublishing(int batchSize, Instant staleBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update OutboxEvent e
+            set e.status = :status, e.updatedAt = :updatedAt, e.version = e.version + 1
+            where e.id in :eventIds
+            """)
+    int updateStatusByIdIn(Collection<UUID> eventIds, OutboxStatus status, Instant updatedAt);
 
     boolean existsByAggregateIdAndEventType(UUID aggregateId, String eventType);
 
+    long countByStatus(OutboxStatus status);
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status = :status")
+    Instant findOldestCreatedAtByStatus(OutboxStatus status);
+
 }
\ No newline at end of file
@@ -3,11 +3,19 @@ package ru.mirea.newrav1k.transactionservice.repository;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCursor;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionStatusView;
 import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +25,38 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
 
     Optional<Transaction> findTransactionByTrackerIdAndId(UUID trackerId, UUID transactionId);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Transaction t
+            set t.status = :status, t.updatedAt = :updatedAt, t.version = t.version + 1
+            where t.id in :transactionIds and t.status = :expectedStatus
+            """)
+    int updateStatusByIdInAndStatus(Collection<UUID> transactionIds, TransactionStatus expectedStatus,
+                                    TransactionStatus status, Instant updatedAt);
+
+    @Query("""
+            select new ru.mirea.newrav1k.transactionservice.model.dto.TransactionStatusView(t.id, t.status)
+            from Transaction t
+            where t.id in :transactionIds
+            """)
+    List<TransactionStatusView> findStatusesByIdIn(Collection<UUID> transactionIds);
+
+    // Блокировка фиксирует, какие транзакции реально сменят статус: сводки должны учесть только их.
+    // Порядок по id исключает взаимоблокировки параллельных пачек
+    @Query(value = """
+            select id from transaction_management.t_transactions
+            where id in (:transactionIds) and status = :#{#status.name()}
+            order by id
+            for update
+            """, nativeQuery = true)
+    List<UUID> lockIdsByIdInAndStatus(Collection<UUID> transactionIds, TransactionStatus status);
+
+    @Query("""
+            select t.id from Transaction t
+            where t.importId = :importId and t.accountId = :accountId and t.status = :status
+            """)
+    List<UUID> findIdsByImportIdAndAccountIdAndStatus(UUID importId, UUID accountId, TransactionStatus status);
+
     default Specification<Transaction> buildTransactionSpecification(TransactionFilter filter) {
         Specification<Transaction> specification = (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
 
@@ -44,4 +84,21 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
         return specification;
     }
 
+    default Specification<Transaction> buildKeysetSpecification(TransactionCursor cursor) {
+        if (Objects.isNull(cursor)) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        }
+        // Избыточное условие createdAt <= cursor позволяет Postgres использовать индекс (trackerId, createdAt, id) как диапазон
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                criteriaBuilder.or(
+                        criteriaBuilder.lessThan(root.get("createdAt"), cursor.createdAt()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("createdAt"), cursor.createdAt()),
+                                criteriaBuilder.lessThan(root.get("id"), cursor.id())
+                        )
+                )
+        );
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.mirea.newrav1k.transactionservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.mirea.newrav1k.transactionservice.model.entity.TransactionSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionSummaryRepository extends JpaRepository<TransactionSummary, UUID> {
+
+    List<TransactionSummary> findAllByTrackerIdAndMonthBetweenOrderByMonthAscCategoryIdAsc(UUID trackerId,
+                                                                                          LocalDate monthFrom,
+                                                                                          LocalDate monthTo);
+
+    @Modifying
+    @Query(value = """
+            insert into transaction_management.t_transaction_summaries
+                (id, tracker_id, month_start, category_id, income, expense)
+            select gen_random_uuid(), t.tracker_id, cast(date_trunc('month', t.created_at at time zone 'UTC') as date), t.category_id,
+                   :sign * coalesce(sum(t.amount) filter (where t.type = 'INCOME'), 0),
+                   :sign * coalesce(sum(t.amount) filter (where t.type = 'EXPENSE'), 0)
+            from transaction_management.t_transactions t
+            where t.id in :transactionIds
+            group by t.tracker_id, cast(date_trunc('month', t.created_at at time zone 'UTC') as date), t.category_id
+            on conflict (tracker_id, month_start, category_id) do update
+            set income = t_transaction_summaries.income + excluded.income,
+                expense = t_transaction_summaries.expense + excluded.expense
+            """, nativeQuery = true)
+    int applyTransactions(Collection<UUID> transactionIds, int sign);
+
+    @Modifying
+    @Query(value = """
+            insert into transaction_management.t_transaction_summaries
+                (id, tracker_id, month_start, category_id, income, expense)
+            values (gen_random_uuid(), :trackerId, :month, :categoryId, :incomeDelta, :expenseDelta)
+            on conflict (tracker_id, month_start, category_id) do update
+            set income = t_transaction_summaries.income + excluded.income,
+                expense = t_transaction_summaries.expense + excluded.expense
+            """, nativeQuery = true)
+    int applyDelta(UUID trackerId, LocalDate month, UUID categoryId, BigDecimal incomeDelta, BigDecimal expenseDelta);
+
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package ru.mirea.newrav1k.transactionservice.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.model.enums.OutboxStatus;
+import ru.mirea.newrav1k.transactionservice.repository.OutboxRepository;
+import ru.mirea.newrav1k.transactionservice.service.OutboxPartitionService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class OutboxMetricsScheduler {
+
+    private final OutboxRepository outboxRepository;
+
+    private final OutboxPartitionService partitionService;
+
+    private final Map<OutboxStatus, AtomicLong> eventCounts = new EnumMap<>(OutboxStatus.class);
+
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+
+    private final AtomicLong totalSizeBytes = new AtomicLong();
+
+    private final AtomicLong partitionCount = new AtomicLong();
+
+    public OutboxMetricsScheduler(OutboxRepository outboxRepository, OutboxPartitionService partitionService,
+                                  MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.partitionService = partitionService;
+
+        for (OutboxStatus status : OutboxStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            this.eventCounts.put(status, count);
+            Gauge.builder("outbox.events", count, AtomicLong::get)
+                    .tag("status", status.name())
+                    .description("Number of outbox events by status")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("outbox.oldest.pending.age", this.oldestPendingAgeSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .description("Age of the oldest outbox event waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.table.size", this.totalSizeBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .description("Total size of the outbox table with its partitions and indexes")
+                .register(meterRegistry);
+        Gauge.builder("outbox.partitions", this.partitionCount, AtomicLong::get)
+                .description("Number of outbox table partitions")
+                .register(meterRegistry);
+    }
+
+    // Значения считаются по таймеру, а не при каждом опросе метрик, чтобы scrape не нагружал базу
+    @Scheduled(fixedDelayString = "${transaction-service.outbox.metrics-interval}")
+    public void refreshMetrics() {
+        try {
+            for (OutboxStatus status : OutboxStatus.values()) {
+                this.eventCounts.get(status).set(this.outboxRepository.countByStatus(status));
+            }
+            Instant oldestPending = this.outboxRepository.findOldestCreatedAtByStatus(OutboxStatus.NEW);
+            this.oldestPendingAgeSeconds.set(oldestPending != null
+                    ? Duration.between(oldestPending, Instant.now()).toSeconds()
+                    : 0L);
+            this.totalSizeBytes.set(this.partitionService.getTotalSizeBytes());
+            this.partitionCount.set(this.partitionService.getPartitionCount());
+        } catch (Exception exception) {
+            log.warn("Failed to refresh outbox metrics", exception);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package ru.mirea.newrav1k.transactionservice.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.OutboxProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static ru.mirea.newrav1k.transactionservice.service.OutboxService.OUTBOX_CHANNEL;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "transaction-service.outbox", name = "dispatch-mode", havingValue = "notify")
+public class OutboxNotificationListener {
+
+    private static final int NOTIFICATION_TIMEOUT_MILLIS = 1000;
+
+    private final OutboxScheduler outboxScheduler;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final OutboxProperties outboxProperties;
+
+    private volatile boolean running;
+
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.running = true;
+        this.listenerThread = new Thread(this::listen, "outbox-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        if (this.listenerThread != null) {
+            this.listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (this.running) {
+            // Отдельное соединение вне пула: LISTEN держит его всё время работы сервиса
+            try (Connection connection = DriverManager.getConnection(
+                    this.dataSourceProperties.determineUrl(),
+                    this.dataSourceProperties.determineUsername(),
+                    this.dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + OUTBOX_CHANNEL);
+                }
+                log.info("Listening for outbox notifications on channel {}", OUTBOX_CHANNEL);
+                // События, сохранённые пока соединения не было, забираем сразу после подписки
+                this.outboxScheduler.wakeUp();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (this.running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("Received {} outbox notifications", notifications.length);
+                        this.outboxScheduler.wakeUp();
+                    }
+                }
+            } catch (SQLException exception) {
+                if (!this.running) {
+                    return;
+                }
+                log.warn("Outbox notification connection lost, reconnecting in {}",
+                        this.outboxProperties.listenReconnectDelay(), exception);
+                try {
+                    Thread.sleep(this.outboxProperties.listenReconnectDelay().toMillis());
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package ru.mirea.newrav1k.transactionservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.service.OutboxPartitionService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "transaction-service.outbox.retention", name = "enabled", havingValue = "true")
+public class OutboxRetentionScheduler implements SmartInitializingSingleton {
+
+    private final OutboxPartitionService partitionService;
+
+    // Как и для t_transactions: до запуска релея outbox, который опрашивает эту таблицу
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.debug("Initializing outbox partitions");
+        try {
+            this.partitionService.convertToPartitionedTable();
+        } catch (Exception exception) {
+            log.error("Failed to convert outbox table to partitioned one", exception);
+            return;
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${transaction-service.outbox.retention.maintenance-cron}")
+    public void maintainPartitions() {
+        log.debug("Maintaining outbox partitions");
+        try {
+            this.partitionService.createFuturePartitions();
+            this.partitionService.dropExpiredPartitions();
+        } catch (Exception exception) {
+            log.error("Failed to maintain outbox partitions", exception);
+        }
+    }
+
+}
\ No newline at end of file
@@ -1,50 +1,137 @@
 package ru.mirea.newrav1k.transactionservice.scheduler;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.OutboxProperties;
 import ru.mirea.newrav1k.transactionservice.controller.kafka.producer.TransactionProducerHandler;
 import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
 import ru.mirea.newrav1k.transactionservice.model.enums.OutboxStatus;
-import ru.mirea.newrav1k.transactionservice.repository.OutboxRepository;
+import ru.mirea.newrav1k.transactionservice.service.OutboxService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OutboxScheduler {
 
-    private final OutboxRepository outboxRepository;
+    private final OutboxService outboxService;
 
     private final TransactionProducerHandler producerHandler;
 
-    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties outboxProperties;
 
-    @Transactional
-    @Scheduled(fixedDelay = 5000)
+    private final ExecutorService relayExecutor;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+
+    public OutboxScheduler(OutboxService outboxService, TransactionProducerHandler producerHandler,
+                           OutboxProperties outboxProperties, Environment environment) {
+        this.outboxService = outboxService;
+        this.producerHandler = producerHandler;
+        this.outboxProperties = outboxProperties;
+        this.relayExecutor = Executors.newFixedThreadPool(outboxProperties.workers(),
+                Threading.VIRTUAL.isActive(environment)
+                        ? Thread.ofVirtual().name("outbox-relay-", 1).factory()
+                        : new CustomizableThreadFactory("outbox-relay-"));
+    }
+
+    @Scheduled(fixedDelayString = "${transaction-service.outbox.poll-interval}")
     public void processOutboxEvents() {
         log.debug("Processing outbox events");
-        List<OutboxEvent> events = this.outboxRepository.findTop50ByStatusOrderByCreatedAtAsc(OutboxStatus.NEW);
-        for (OutboxEvent event : events) {
-            this.transactionTemplate.executeWithoutResult(status -> {
-                try {
-                    event.setStatus(OutboxStatus.IN_PROGRESS);
-                    this.outboxRepository.save(event);
-
-                    this.producerHandler.send(event);
-                    event.setStatus(OutboxStatus.PUBLISHED);
-
-                    this.outboxRepository.save(event);
-                } catch (Exception exception) {
-                    event.setStatus(OutboxStatus.FAILED);
-                    this.outboxRepository.save(event);
+        // Дозапускаем воркеров до заданного количества; уже работающие продолжают разбирать очередь
+        while (true) {
+            int active = this.activeWorkers.get();
+            if (active >= this.outboxProperties.workers()) {
+                return;
+            }
+            if (this.activeWorkers.compareAndSet(active, active + 1)) {
+                this.relayExecutor.execute(this::drain);
+            }
+        }
+    }
+
+    public void wakeUp() {
+        // Флаг не даёт потерять событие, закоммиченное после последнего claim уже работающего воркера
+        this.wakeUpRequested.set(true);
+        processOutboxEvents();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.relayExecutor.shutdown();
+    }
+
+    private void drain() {
+        try {
+            List<OutboxEvent> events;
+            do {
+                events = this.outboxService.claimEvents(this.outboxProperties.batchSize(), this.outboxProperties.claimTimeout());
+                if (!events.isEmpty()) {
+                    publish(events);
                 }
-            });
+            } while (events.size() == this.outboxProperties.batchSize() || this.wakeUpRequested.getAndSet(false));
+        } catch (Exception exception) {
+            log.error("Outbox relay worker failed", exception);
+        } finally {
+            this.activeWorkers.decrementAndGet();
+        }
+    }
+
+    private void publish(List<OutboxEvent> events) {
+        // Разные ключи отправляются сразу и ждутся вместе. Событие ключа уходит только после подтверждения
+        // предыдущего: иначе после сбоя раннего события позднее оказалось бы в Kafka раньше его повтора
+        Map<String, CompletableFuture<?>> lastSendByKey = new HashMap<>();
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            CompletableFuture<?> previous = lastSendByKey.get(event.getMessageKey());
+            CompletableFuture<?> send = previous == null
+                    ? this.producerHandler.send(event)
+                    : previous.thenCompose(result -> this.producerHandler.send(event));
+            lastSendByKey.put(event.getMessageKey(), send);
+            sends.add(send);
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(this.outboxProperties.sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException exception) {
+            log.warn("Some outbox events of the batch were not sent", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<UUID> publishedIds = new ArrayList<>();
+        List<UUID> failedIds = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            CompletableFuture<?> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                publishedIds.add(events.get(i).getId());
+            } else if (send.isDone()) {
+                // Вместе с упавшим событием повторно уйдут и неотправленные следующие события его ключа
+                failedIds.add(events.get(i).getId());
+            }
+            // Незавершённые отправки остаются IN_PROGRESS и будут забраны повторно после claimTimeout
         }
+        this.outboxService.updateStatuses(publishedIds, OutboxStatus.PUBLISHED);
+        this.outboxService.updateStatuses(failedIds, OutboxStatus.FAILED);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package ru.mirea.newrav1k.transactionservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.transactionservice.service.TransactionPartitionService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "transaction-service.partitioning", name = "enabled", havingValue = "true")
+public class TransactionPartitionScheduler implements SmartInitializingSingleton {
+
+    private final TransactionPartitionService partitionService;
+
+    // Конвертация переименовывает и удаляет таблицу, поэтому выполняется после создания схемы Hibernate,
+    // но до запуска Kafka-слушателей, планировщиков outbox и Tomcat
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.debug("Initializing transaction partitions");
+        try {
+            this.partitionService.convertToPartitionedTable();
+        } catch (Exception exception) {
+            log.error("Failed to convert transactions table to partitioned one", exception);
+            return;
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${transaction-service.partitioning.maintenance-cron}")
+    public void maintainPartitions() {
+        log.debug("Maintaining transaction partitions");
+        try {
+            this.partitionService.createFuturePartitions();
+            this.partitionService.detachExpiredPartitions();
+        } catch (Exception exception) {
+            log.error("Failed to maintain transaction partitions", exception);
+        }
+    }
+
+}
\ No newline at end of file
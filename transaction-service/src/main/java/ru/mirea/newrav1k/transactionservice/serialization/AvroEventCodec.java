@@ -0,0 +1,183 @@
+package ru.mirea.newrav1k.transactionservice.serialization;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Компактное двоичное представление событий: UUID - 16 байт, суммы - unscaled-значение decimal
+public class AvroEventCodec {
+
+    public static final String ENCODING_HEADER = "x-event-encoding";
+
+    public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+
+    public static final String AVRO = "avro";
+
+    private final LocalSchemaRegistry schemaRegistry;
+
+    private final Map<Schema, GenericDatumWriter<GenericRecord>> writers = new ConcurrentHashMap<>();
+
+    private final Map<String, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+
+    public AvroEventCodec(LocalSchemaRegistry schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    public boolean supports(String eventType) {
+        return this.schemaRegistry.supports(eventType);
+    }
+
+    public byte[] encode(String eventType, Object event, Headers headers) {
+        int version = this.schemaRegistry.writeVersion(eventType);
+        Schema schema = this.schemaRegistry.get(eventType, version);
+        GenericRecord record = new GenericData.Record(schema);
+        try {
+            for (RecordComponent component : event.getClass().getRecordComponents()) {
+                Schema.Field field = schema.getField(component.getName());
+                // Поле, которого нет в закреплённой версии схемы, старые потребители всё равно не прочитают
+                if (field != null) {
+                    record.put(field.pos(), toAvro(component.getAccessor().invoke(event), field.schema()));
+                }
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(128);
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(outputStream, null);
+            this.writers.computeIfAbsent(schema, GenericDatumWriter::new).write(record, encoder);
+            encoder.flush();
+
+            clearHeaders(headers);
+            headers.add(ENCODING_HEADER, AVRO.getBytes(StandardCharsets.UTF_8));
+            headers.add(SCHEMA_VERSION_HEADER, String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+            return outputStream.toByteArray();
+        } catch (IOException | ReflectiveOperationException | RuntimeException exception) {
+            throw new SerializationException("Failed to encode event " + eventType + " with schema v" + version, exception);
+        }
+    }
+
+    public <T> T decode(Class<T> type, byte[] data, int version) {
+        String eventType = type.getSimpleName();
+        // Схема писателя берётся по версии из заголовка, схема читателя - последняя известная;
+        // разница между ними (новые поля со значением по умолчанию, удалённые поля) разрешается Avro
+        Schema writerSchema = this.schemaRegistry.get(eventType, version);
+        Schema readerSchema = this.schemaRegistry.latest(eventType);
+        try {
+            GenericRecord record = this.readers
+                    .computeIfAbsent(eventType + ":" + version, key -> new GenericDatumReader<>(writerSchema, readerSchema))
+                    .read(null, DecoderFactory.get().binaryDecoder(data, null));
+            RecordComponent[] components = type.getRecordComponents();
+            Object[] arguments = new Object[components.length];
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                parameterTypes[i] = components[i].getType();
+                Schema.Field field = readerSchema.getField(components[i].getName());
+                arguments[i] = field != null ? fromAvro(record.get(field.pos()), components[i].getType(), field.schema()) : null;
+            }
+            Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+            return constructor.newInstance(arguments);
+        } catch (IOException | ReflectiveOperationException | RuntimeException exception) {
+            throw new SerializationException("Failed to decode event " + eventType + " with schema v" + version, exception);
+        }
+    }
+
+    public static boolean isAvro(Headers headers) {
+        Header header = headers.lastHeader(ENCODING_HEADER);
+        return header != null && AVRO.equals(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    public static int schemaVersion(Headers headers) {
+        Header header = headers.lastHeader(SCHEMA_VERSION_HEADER);
+        if (header == null) {
+            throw new SerializationException("Missing " + SCHEMA_VERSION_HEADER + " header");
+        }
+        return Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    public static void clearHeaders(Headers headers) {
+        headers.remove(ENCODING_HEADER);
+        headers.remove(SCHEMA_VERSION_HEADER);
+    }
+
+    private static Object toAvro(Object value, Schema schema) {
+        if (value == null) {
+            return null;
+        }
+        Schema target = nonNullBranch(schema);
+        switch (target.getType()) {
+            case FIXED -> {
+                UUID uuid = (UUID) value;
+                ByteBuffer buffer = ByteBuffer.allocate(16);
+                buffer.putLong(uuid.getMostSignificantBits());
+                buffer.putLong(uuid.getLeastSignificantBits());
+                return new GenericData.Fixed(target, buffer.array());
+            }
+            case BYTES -> {
+                int scale = ((LogicalTypes.Decimal) target.getLogicalType()).getScale();
+                return ByteBuffer.wrap(((BigDecimal) value).setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().toByteArray());
+            }
+            case STRING -> {
+                return value instanceof Enum<?> constant ? constant.name() : value.toString();
+            }
+            default -> {
+                return value;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object fromAvro(Object value, Class<?> type, Schema schema) {
+        if (value == null) {
+            return null;
+        }
+        Schema target = nonNullBranch(schema);
+        switch (target.getType()) {
+            case FIXED -> {
+                ByteBuffer buffer = ByteBuffer.wrap(((GenericData.Fixed) value).bytes());
+                return new UUID(buffer.getLong(), buffer.getLong());
+            }
+            case BYTES -> {
+                ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+                byte[] unscaled = new byte[buffer.remaining()];
+                buffer.get(unscaled);
+                return new BigDecimal(new BigInteger(unscaled), ((LogicalTypes.Decimal) target.getLogicalType()).getScale());
+            }
+            case STRING -> {
+                return type.isEnum() ? Enum.valueOf((Class<Enum>) type, value.toString()) : value.toString();
+            }
+            default -> {
+                return value;
+            }
+        }
+    }
+
+    private static Schema nonNullBranch(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        return schema.getTypes().stream()
+                .filter(branch -> branch.getType() != Schema.Type.NULL)
+                .findFirst()
+                .orElse(schema);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package ru.mirea.newrav1k.transactionservice.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import ru.mirea.newrav1k.transactionservice.event.EventTypes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Формат определяется по заголовку x-event-encoding, поэтому потребитель читает и JSON, и Avro во время смены формата
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    private final AvroEventCodec avroEventCodec;
+
+    public EventDeserializer(AvroEventCodec avroEventCodec) {
+        this.avroEventCodec = avroEventCodec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return this.jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null || !AvroEventCodec.isAvro(headers)) {
+            return this.jsonDeserializer.deserialize(topic, headers, data);
+        }
+        Header typeHeader = headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        String eventType = typeHeader != null ? new String(typeHeader.value(), StandardCharsets.UTF_8) : null;
+        Class<?> type = EventTypes.KAFKA_EVENT_TYPES.get(eventType);
+        if (type == null) {
+            throw new SerializationException("Unknown Avro event type " + eventType + " in topic " + topic);
+        }
+        return this.avroEventCodec.decode(type, data, AvroEventCodec.schemaVersion(headers));
+    }
+
+    @Override
+    public void close() {
+        this.jsonDeserializer.close();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package ru.mirea.newrav1k.transactionservice.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import ru.mirea.newrav1k.transactionservice.model.enums.EventEncoding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class EventSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    private final AvroEventCodec avroEventCodec;
+
+    private final EventEncoding encoding;
+
+    public EventSerializer(AvroEventCodec avroEventCodec, EventEncoding encoding) {
+        this.avroEventCodec = avroEventCodec;
+        this.encoding = encoding;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return this.jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        // Заголовки кодировки могли прийти из исходной записи (повтор через DLT), их нужно выставить заново
+        AvroEventCodec.clearHeaders(headers);
+        if (data == null || this.encoding != EventEncoding.AVRO || !this.avroEventCodec.supports(data.getClass().getSimpleName())) {
+            return this.jsonSerializer.serialize(topic, headers, data);
+        }
+        String eventType = data.getClass().getSimpleName();
+        headers.remove(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, eventType.getBytes(StandardCharsets.UTF_8));
+        return this.avroEventCodec.encode(eventType, data, headers);
+    }
+
+    @Override
+    public void close() {
+        this.jsonSerializer.close();
+    }
+
+}
\ No newline at end of file
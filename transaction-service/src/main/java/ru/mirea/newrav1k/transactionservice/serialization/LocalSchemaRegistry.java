@@ -0,0 +1,86 @@
+package ru.mirea.newrav1k.transactionservice.serialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Замена внешнего Schema Registry: схемы лежат в каталоге <Event>/v<N>.avsc и читаются при старте
+@Slf4j
+public class LocalSchemaRegistry {
+
+    private static final Pattern SCHEMA_FILE = Pattern.compile(".*/([A-Za-z0-9_]+)/v(\\d+)\\.avsc$");
+
+    private final Map<String, NavigableMap<Integer, Schema>> schemas = new HashMap<>();
+
+    private final Map<String, Integer> pinnedVersions;
+
+    public LocalSchemaRegistry(ResourcePatternResolver resourcePatternResolver, String location,
+                               Map<String, Integer> pinnedVersions) throws IOException {
+        String base = location.endsWith("/") ? location : location + "/";
+        for (Resource resource : resourcePatternResolver.getResources(base + "*/v*.avsc")) {
+            Matcher matcher = SCHEMA_FILE.matcher(resource.getURI().toString());
+            if (!matcher.matches()) {
+                continue;
+            }
+            try (InputStream inputStream = resource.getInputStream()) {
+                Schema schema = new Schema.Parser().parse(inputStream);
+                this.schemas.computeIfAbsent(matcher.group(1), type -> new TreeMap<>())
+                        .put(Integer.parseInt(matcher.group(2)), schema);
+            }
+        }
+        for (Map.Entry<String, Integer> pinned : pinnedVersions.entrySet()) {
+            get(pinned.getKey(), pinned.getValue());
+        }
+        this.pinnedVersions = Map.copyOf(pinnedVersions);
+        log.info("Loaded event schemas from {}: {}", base, versions());
+    }
+
+    public boolean supports(String eventType) {
+        return this.schemas.containsKey(eventType);
+    }
+
+    // Версия, которой пишет продюсер: закреплённая на время раскатки новой схемы либо последняя
+    public int writeVersion(String eventType) {
+        Integer pinned = this.pinnedVersions.get(eventType);
+        return pinned != null ? pinned : versionsOf(eventType).lastKey();
+    }
+
+    public Schema latest(String eventType) {
+        return versionsOf(eventType).lastEntry().getValue();
+    }
+
+    public Schema get(String eventType, int version) {
+        Schema schema = versionsOf(eventType).get(version);
+        if (schema == null) {
+            throw new SerializationException("Unknown schema version " + version + " for event " + eventType);
+        }
+        return schema;
+    }
+
+    private NavigableMap<Integer, Schema> versionsOf(String eventType) {
+        NavigableMap<Integer, Schema> versions = this.schemas.get(eventType);
+        if (versions == null) {
+            throw new SerializationException("No schema registered for event " + eventType);
+        }
+        return versions;
+    }
+
+    private Map<String, ?> versions() {
+        Map<String, Object> versions = new TreeMap<>();
+        this.schemas.forEach((type, byVersion) -> versions.put(type, Collections.unmodifiableSet(byVersion.keySet())));
+        return versions;
+    }
+
+}
\ No newline at end of file
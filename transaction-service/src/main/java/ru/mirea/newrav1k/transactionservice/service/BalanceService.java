@@ -7,9 +7,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import ru.mirea.newrav1k.transactionservice.event.publisher.TransactionEventPublisher;
+import ru.mirea.newrav1k.transactionservice.exception.AccountOperationRejectedException;
 import ru.mirea.newrav1k.transactionservice.exception.TransactionServiceException;
 import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
-import ru.mirea.newrav1k.transactionservice.service.client.AccountClient;
+import ru.mirea.newrav1k.transactionservice.service.client.AccountBalanceClient;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -24,13 +25,13 @@ public class BalanceService {
 
     private final TransactionEventPublisher transactionEventPublisher;
 
-    private final AccountClient accountClient;
+    private final AccountBalanceClient accountBalanceClient;
 
     @CircuitBreaker(name = "updateBalance", fallbackMethod = "updateBalanceFallback")
     public void updateBalance(UUID transactionId, UUID accountId, TransactionType transactionType, BigDecimal amount) {
         log.debug("Updating balance for account {} from transaction {}", accountId, transactionId);
         BigDecimal updateAmount = transactionType.equals(TransactionType.INCOME) ? amount : amount.negate();
-        this.accountClient.updateBalance(accountId, transactionId, updateAmount);
+        this.accountBalanceClient.updateBalance(accountId, transactionId, updateAmount);
         log.debug("Successfully updated account balance for account {}", accountId);
     }
 
@@ -41,13 +42,20 @@ public class BalanceService {
         handleThrowableWithServiceUnavailable(TRANSACTION_CREATE_FAILED, throwable);
     }
 
+    @CircuitBreaker(name = "applyBalanceDelta")
+    public void applyBalanceDelta(UUID operationId, UUID accountId, BigDecimal delta) {
+        log.debug("Applying balance delta {} for account {} from operation {}", delta, accountId, operationId);
+        this.accountBalanceClient.updateBalance(accountId, operationId, delta);
+        log.debug("Successfully applied balance delta for account {}", accountId);
+    }
+
     @CircuitBreaker(name = "compensateTransaction", fallbackMethod = "compensateTransactionFallback")
     public void compensateTransaction(UUID transactionId, UUID accountId, TransactionType transactionType, BigDecimal amount) {
         log.debug("Starting to compensate transaction for account {}", accountId);
         BigDecimal compensationAmount = transactionType == TransactionType.INCOME
                 ? amount.negate()
                 : amount;
-        this.accountClient.updateBalance(accountId, transactionId, compensationAmount);
+        this.accountBalanceClient.updateBalance(accountId, transactionId, compensationAmount);
         log.debug("Successfully compensated transaction for account {}", accountId);
     }
 
@@ -66,7 +74,7 @@ public class BalanceService {
         if (transactionType.equals(TransactionType.EXPENSE)) {
             compensationAmount = compensationAmount.negate();
         }
-        this.accountClient.updateBalance(accountId, transactionId, compensationAmount);
+        this.accountBalanceClient.updateBalance(accountId, transactionId, compensationAmount);
         log.debug("Successfully compensated difference amount for account {}", accountId);
     }
 
@@ -87,6 +95,9 @@ public class BalanceService {
         if (throwable instanceof FeignException feignException) {
             throw feignException;
         }
+        if (throwable instanceof AccountOperationRejectedException rejectedException) {
+            throw rejectedException;
+        }
         throw new TransactionServiceException(message, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
@@ -0,0 +1,261 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import ru.mirea.newrav1k.transactionservice.configuration.KafkaConfiguration;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionRetryProperties;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionTopicsProperties;
+import ru.mirea.newrav1k.transactionservice.event.RetryTopics;
+import ru.mirea.newrav1k.transactionservice.exception.DeadLetterReplayInProgressException;
+import ru.mirea.newrav1k.transactionservice.exception.DeadLetterReplayJobNotFoundException;
+import ru.mirea.newrav1k.transactionservice.exception.DeadLetterTopicUnknownException;
+import ru.mirea.newrav1k.transactionservice.exception.TransactionProcessingException;
+import ru.mirea.newrav1k.transactionservice.model.dto.DeadLetterReplayResponse;
+import ru.mirea.newrav1k.transactionservice.model.entity.DeadLetterReplayJob;
+import ru.mirea.newrav1k.transactionservice.model.enums.DeadLetterReplayStatus;
+import ru.mirea.newrav1k.transactionservice.repository.DeadLetterReplayJobRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class DeadLetterReplayService {
+
+    private static final String REPLAY_LOCK = "transaction_management:dead-letter-replay";
+
+    private final ConsumerFactory<String, byte[]> rawConsumerFactory;
+
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
+
+    private final TransactionTopicsProperties topics;
+
+    private final TransactionRetryProperties retryProperties;
+
+    private final DeadLetterReplayJobRepository jobRepository;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final String replayGroupId;
+
+    private final ExecutorService replayExecutor;
+
+    public DeadLetterReplayService(ConsumerFactory<String, byte[]> rawConsumerFactory,
+                                   KafkaTemplate<String, byte[]> rawKafkaTemplate,
+                                   TransactionTopicsProperties topics,
+                                   TransactionRetryProperties retryProperties,
+                                   DeadLetterReplayJobRepository jobRepository,
+                                   DataSourceProperties dataSourceProperties,
+                                   Environment environment,
+                                   @Value("${transaction-service.kafka.group-id}") String groupId) {
+        this.rawConsumerFactory = rawConsumerFactory;
+        this.rawKafkaTemplate = rawKafkaTemplate;
+        this.topics = topics;
+        this.retryProperties = retryProperties;
+        this.jobRepository = jobRepository;
+        this.dataSourceProperties = dataSourceProperties;
+        // Отдельная группа хранит позицию повторной отправки: повторный вызов продолжит с места остановки
+        this.replayGroupId = groupId + "-dlt-replay";
+        this.replayExecutor = Executors.newSingleThreadExecutor(
+                Threading.VIRTUAL.isActive(environment)
+                        ? Thread.ofVirtual().name("dead-letter-replay-", 1).factory()
+                        : new CustomizableThreadFactory("dead-letter-replay-"));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public DeadLetterReplayResponse startReplay(String topic, int limit, Integer ratePerSecond) {
+        if (!KafkaConfiguration.mainTopics(this.topics).contains(topic)) {
+            throw new DeadLetterTopicUnknownException();
+        }
+        Connection lockConnection = acquireReplayLock();
+        try {
+            // Блокировка наша, значит RUNNING-задачи остались от упавших экземпляров
+            this.jobRepository.updateStatusByStatus(DeadLetterReplayStatus.RUNNING, DeadLetterReplayStatus.FAILED, Instant.now());
+            DeadLetterReplayJob job = this.jobRepository.save(DeadLetterReplayJob.builder()
+                    .topic(topic)
+                    .limit(limit)
+                    .ratePerSecond(ratePerSecond != null ? ratePerSecond : this.retryProperties.replayRatePerSecond())
+                    .status(DeadLetterReplayStatus.RUNNING)
+                    .build());
+            DeadLetterReplayResponse response = toResponse(job);
+            this.replayExecutor.execute(() -> runReplay(job, lockConnection));
+            return response;
+        } catch (RuntimeException exception) {
+            releaseReplayLock(lockConnection);
+            throw exception;
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public DeadLetterReplayResponse findJob(UUID jobId) {
+        return this.jobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(DeadLetterReplayJobNotFoundException::new);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Прерванная задача помечается FAILED и отпускает блокировку, следующий вызов продолжит с сохранённой позиции
+        this.replayExecutor.shutdownNow();
+    }
+
+    private void runReplay(DeadLetterReplayJob job, Connection lockConnection) {
+        try {
+            replayDeadLetters(job);
+        } catch (Exception exception) {
+            log.error("Dead letter replay job {} failed", job.getId(), exception);
+            this.jobRepository.updateProgress(job.getId(), DeadLetterReplayStatus.FAILED,
+                    job.getReplayed(), false, Instant.now());
+        } finally {
+            releaseReplayLock(lockConnection);
+        }
+    }
+
+    // Сессионная advisory-блокировка держится всё время задачи на отдельном соединении вне пула,
+    // поэтому повторная отправка выполняется одна на все экземпляры сервиса, а при падении экземпляра блокировка снимается
+    private Connection acquireReplayLock() {
+        Connection connection = null;
+        try {
+            connection = DriverManager.getConnection(
+                    this.dataSourceProperties.determineUrl(),
+                    this.dataSourceProperties.determineUsername(),
+                    this.dataSourceProperties.determinePassword());
+            try (PreparedStatement statement = connection.prepareStatement("select pg_try_advisory_lock(hashtext(?))")) {
+                statement.setString(1, REPLAY_LOCK);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next() && resultSet.getBoolean(1)) {
+                        return connection;
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            log.error("Failed to acquire dead letter replay lock", exception);
+            releaseReplayLock(connection);
+            throw new TransactionProcessingException();
+        }
+        releaseReplayLock(connection);
+        throw new DeadLetterReplayInProgressException();
+    }
+
+    // Закрытие соединения снимает сессионную блокировку без явного unlock
+    private void releaseReplayLock(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException exception) {
+            log.warn("Failed to close dead letter replay lock connection", exception);
+        }
+    }
+
+    private DeadLetterReplayResponse toResponse(DeadLetterReplayJob job) {
+        return new DeadLetterReplayResponse(job.getId(), job.getTopic(), job.getStatus(), job.getReplayed(), job.isExhausted());
+    }
+
+    private void replayDeadLetters(DeadLetterReplayJob job) {
+        String topic = job.getTopic();
+        int limit = job.getLimit();
+        int ratePerSecond = job.getRatePerSecond();
+        String deadLetterTopic = RetryTopics.deadLetterTopic(topic);
+        log.info("Replaying dead letters: topic={}, limit={}, rate={}/s", deadLetterTopic, limit, ratePerSecond);
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(limit, 500));
+        try (Consumer<String, byte[]> consumer =
+                     this.rawConsumerFactory.createConsumer(this.replayGroupId, null, null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            // Граница фиксируется на старте: письма, упавшие повторно во время replay, не зацикливаются
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            long nextSendAt = System.nanoTime();
+            int replayed = 0;
+            while (replayed < limit && !reachedEnd(consumer, endOffsets)) {
+                Map<TopicPartition, OffsetAndMetadata> processed = new HashMap<>();
+                Map<TopicPartition, Long> skipped = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(this.retryProperties.replayPollTimeout())) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    if (replayed >= limit) {
+                        skipped.putIfAbsent(partition, record.offset());
+                        continue;
+                    }
+                    nextSendAt = pace(nextSendAt, intervalNanos);
+                    ProducerRecord<String, byte[]> replay =
+                            new ProducerRecord<>(topic, null, record.key(), record.value(), record.headers());
+                    RetryTopics.clear(replay.headers());
+                    sends.add(this.rawKafkaTemplate.send(replay));
+                    processed.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                if (!processed.isEmpty()) {
+                    consumer.commitSync(processed);
+                    job.setReplayed(replayed);
+                    this.jobRepository.updateProgress(job.getId(), DeadLetterReplayStatus.RUNNING, replayed, false, Instant.now());
+                }
+                // Записи сверх лимита остаются непрочитанными и войдут в следующий replay
+                skipped.forEach(consumer::seek);
+            }
+            boolean exhausted = reachedEnd(consumer, endOffsets);
+            log.info("Replayed {} dead letters from {}, exhausted={}", replayed, deadLetterTopic, exhausted);
+            this.jobRepository.updateProgress(job.getId(), DeadLetterReplayStatus.COMPLETED, replayed, exhausted, Instant.now());
+        }
+    }
+
+    private long pace(long nextSendAt, long intervalNanos) {
+        long wait = nextSendAt - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Dead letter replay interrupted", exception);
+            }
+        }
+        return Math.max(nextSendAt, System.nanoTime()) + intervalNanos;
+    }
+
+    private boolean reachedEnd(Consumer<String, byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mirea.newrav1k.core.partition.PartitionedTable;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.OutboxRetentionProperties;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+@Slf4j
+@Service
+public class OutboxPartitionService {
+
+    private static final String SCHEMA = "transaction_management";
+
+    private static final String TABLE = "t_outbox_events";
+
+    private static final String QUALIFIED_TABLE = SCHEMA + "." + TABLE;
+
+    private static final String PARTITION_PREFIX = TABLE + "_";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'d'yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final OutboxRetentionProperties retentionProperties;
+
+    private final PartitionedTable partitionedTable;
+
+    public OutboxPartitionService(JdbcTemplate jdbcTemplate, OutboxRetentionProperties retentionProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionProperties = retentionProperties;
+        this.partitionedTable = new PartitionedTable(jdbcTemplate, SCHEMA, TABLE);
+    }
+
+    @Transactional
+    public void convertToPartitionedTable() {
+        boolean converted = this.partitionedTable.convert("created_at",
+                legacy -> "like " + legacy + " including defaults including constraints",
+                this::createPartitionsFrom,
+                legacy -> this.jdbcTemplate.execute("insert into " + QUALIFIED_TABLE + " select * from " + legacy));
+        if (!converted) {
+            return;
+        }
+        this.jdbcTemplate.execute("alter table " + QUALIFIED_TABLE + " add primary key (id, created_at)");
+        this.jdbcTemplate.execute("create index idx_outbox_event_created on " + QUALIFIED_TABLE + " (status, created_at)");
+        this.jdbcTemplate.execute("create index idx_outbox_event_aggregates on " + QUALIFIED_TABLE
+                + " (aggregate_id, event_type)");
+        this.jdbcTemplate.execute("create index idx_outbox_event_keys on " + QUALIFIED_TABLE + " (message_key, status)");
+    }
+
+    @Transactional
+    public void createFuturePartitions() {
+        this.partitionedTable.lock();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= this.retentionProperties.daysAhead(); i++) {
+            createDailyPartition(today.plusDays(i));
+        }
+    }
+
+    @Transactional
+    public void dropExpiredPartitions() {
+        this.partitionedTable.lock();
+        LocalDate retentionBoundary = LocalDate.now(ZoneOffset.UTC).minusDays(this.retentionProperties.retentionDays());
+        for (String partition : this.partitionedTable.findPartitions()) {
+            LocalDate day = parsePartitionDay(partition);
+            if (day == null || !day.isBefore(retentionBoundary)) {
+                continue;
+            }
+            // Секцию удаляем целиком, только если в ней не осталось событий, ожидающих отправки
+            Boolean hasPending = this.jdbcTemplate.queryForObject(
+                    "select exists(select 1 from " + SCHEMA + "." + partition + " where status in ('NEW', 'IN_PROGRESS', 'FAILED'))",
+                    Boolean.class);
+            if (Boolean.TRUE.equals(hasPending)) {
+                log.warn("Expired outbox partition {} still has unpublished events, keeping it", partition);
+                continue;
+            }
+            log.info("Dropping expired outbox partition {}", partition);
+            this.jdbcTemplate.execute("drop table " + SCHEMA + "." + partition);
+        }
+    }
+
+    public long getTotalSizeBytes() {
+        Long size = this.jdbcTemplate.queryForObject(
+                "select coalesce(sum(pg_total_relation_size(relid)), 0) from pg_partition_tree(?::regclass)",
+                Long.class, QUALIFIED_TABLE);
+        return size != null ? size : 0L;
+    }
+
+    public int getPartitionCount() {
+        return this.partitionedTable.findPartitions().size();
+    }
+
+    private void createPartitionsFrom(String legacy) {
+        Timestamp oldest = legacy != null
+                ? this.jdbcTemplate.queryForObject("select min(created_at) from " + legacy, Timestamp.class)
+                : null;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = oldest != null ? oldest.toInstant().atZone(ZoneOffset.UTC).toLocalDate() : today;
+        LocalDate to = today.plusDays(this.retentionProperties.daysAhead());
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            createDailyPartition(day);
+        }
+    }
+
+    private void createDailyPartition(LocalDate day) {
+        this.partitionedTable.createPartition(PARTITION_PREFIX + day.format(PARTITION_SUFFIX),
+                day + " 00:00:00+00", day.plusDays(1) + " 00:00:00+00");
+    }
+
+    private LocalDate parsePartitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+}
\ No newline at end of file
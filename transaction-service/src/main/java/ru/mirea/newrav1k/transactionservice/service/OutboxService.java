@@ -5,14 +5,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.OutboxProperties;
 import ru.mirea.newrav1k.transactionservice.exception.TransactionServiceException;
 import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.OutboxDispatchMode;
 import ru.mirea.newrav1k.transactionservice.model.enums.OutboxStatus;
 import ru.mirea.newrav1k.transactionservice.repository.OutboxRepository;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -21,14 +28,23 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class OutboxService {
 
+    public static final String OUTBOX_CHANNEL = "transaction_outbox";
+
+    private static final String CLAIM_LOCK = "transaction_management.t_outbox_events:claim";
+
     private final OutboxRepository outboxRepository;
 
     private final ObjectMapper objectMapper;
 
+    private final JdbcTemplate jdbcTemplate;
+
+    private final OutboxProperties outboxProperties;
+
     @Transactional
     public void saveEvent(
             String aggregateType,
             UUID aggregateId,
+            UUID messageKey,
             String topic,
             String eventType,
             Object event
@@ -44,6 +60,7 @@ public class OutboxService {
             OutboxEvent outboxEvent = OutboxEvent.builder()
                     .aggregateType(aggregateType)
                     .aggregateId(aggregateId)
+                    .messageKey(messageKey.toString())
                     .topic(topic)
                     .eventType(eventType)
                     .payload(payload)
@@ -52,6 +69,11 @@ public class OutboxService {
 
             this.outboxRepository.save(outboxEvent);
 
+            if (this.outboxProperties.dispatchMode() == OutboxDispatchMode.NOTIFY) {
+                // Postgres доставляет NOTIFY только после коммита, поэтому релей не увидит незакоммиченное событие
+                this.jdbcTemplate.execute("notify " + OUTBOX_CHANNEL);
+            }
+
             log.debug("Saved OutboxEvent: topic={}, eventType={}, aggregateId={}", topic, eventType, aggregateId);
         } catch (JsonProcessingException exception) {
             log.error("Failed to serialize event {}", event, exception);
@@ -59,4 +81,29 @@ public class OutboxService {
         }
     }
 
+    @Transactional
+    public List<OutboxEvent> claimEvents(int batchSize, Duration claimTimeout) {
+        Instant now = Instant.now();
+        // Claim короткий и выполняется воркерами всех экземпляров по очереди: иначе два воркера, не видя
+        // незакоммиченных claim друг друга, могли бы забрать разные события одного ключа
+        this.jdbcTemplate.execute("select pg_advisory_xact_lock(hashtext('" + CLAIM_LOCK + "'))");
+        // IN_PROGRESS старше claimTimeout - события упавшего воркера, FAILED старше claimTimeout - ждавшие повтора
+        List<OutboxEvent> events = this.outboxRepository.findBatchForPublishing(batchSize, now.minus(claimTimeout));
+        if (!events.isEmpty()) {
+            this.outboxRepository.updateStatusByIdIn(events.stream().map(OutboxEvent::getId).toList(),
+                    OutboxStatus.IN_PROGRESS, now);
+            log.debug("Claimed {} outbox events", events.size());
+        }
+        return events;
+    }
+
+    @Transactional
+    public void updateStatuses(Collection<UUID> eventIds, OutboxStatus status) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        int updated = this.outboxRepository.updateStatusByIdIn(eventIds, status, Instant.now());
+        log.debug("Marked {} outbox events as {}", updated, status);
+    }
+
 }
\ No newline at end of file
@@ -3,10 +3,12 @@ package ru.mirea.newrav1k.transactionservice.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.mirea.newrav1k.transactionservice.model.entity.ProcessedEvent;
-import ru.mirea.newrav1k.transactionservice.repository.ProcessedEventRepository;
+import ru.mirea.newrav1k.core.dedup.ProcessedEventStore;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -14,12 +16,33 @@ import ru.mirea.newrav1k.transactionservice.repository.ProcessedEventRepository;
 @Transactional(readOnly = true)
 public class ProcessedEventService {
 
-    private final ProcessedEventRepository processedEventRepository;
+    private final ProcessedEventStore processedEventStore;
+
+    public boolean isEventProcessed(UUID eventId) {
+        return this.processedEventStore.isProcessed(eventId);
+    }
+
+    public Set<UUID> findProcessedEvents(Collection<UUID> eventIds) {
+        return this.processedEventStore.findProcessed(eventIds);
+    }
+
+    // Отметка вставляется до обработки и в той же транзакции: повторная доставка на другой экземпляр ждёт коммита
+    // первой вставки и получает false, а откат обработки снимает отметку. Проверки isEventProcessed/findProcessedEvents
+    // по фильтру Блума лишь отсеивают заведомые повторы и гарантией однократности не являются
+    @Transactional
+    public boolean processOnce(UUID eventId, Runnable processing) {
+        if (!this.processedEventStore.markProcessed(eventId)) {
+            log.debug("Event {} has already been processed", eventId);
+            return false;
+        }
+        processing.run();
+        return true;
+    }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void markEventAsProcessed(final ProcessedEvent processedEvent) {
-        log.debug("Marking processed event {}", processedEvent);
-        this.processedEventRepository.save(processedEvent);
+    @Transactional
+    public int markEventsAsProcessed(Collection<UUID> eventIds) {
+        log.debug("Marking {} processed events", eventIds.size());
+        return this.processedEventStore.markAllProcessed(eventIds);
     }
 
 }
\ No newline at end of file
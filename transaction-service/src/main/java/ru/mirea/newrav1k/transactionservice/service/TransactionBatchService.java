@@ -0,0 +1,173 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionProcessingProperties;
+import ru.mirea.newrav1k.transactionservice.event.publisher.TransactionEventPublisher;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionBatchResponse;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+
+    private final TransactionRepository transactionRepository;
+
+    private final TransactionEventPublisher transactionEventPublisher;
+
+    private final TransactionSummaryService transactionSummaryService;
+
+    private final ProcessedEventService processedEventService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionProcessingProperties processingProperties;
+
+    // Строки и по одному событию изменения баланса на счёт пишутся в одной транзакции, как при импорте выписки:
+    // баланс меняет консьюмер с повторами через retry-топики, а падение экземпляра не оставит строки без события
+    @PreAuthorize("isAuthenticated()")
+    public TransactionBatchResponse createBatch(UUID trackerId, List<TransactionCreateRequest> requests) {
+        log.debug("Creating transaction batch: trackerId={}, size={}", trackerId, requests.size());
+        UUID batchId = UUID.randomUUID();
+        Map<UUID, BigDecimal> accountDeltas = this.transactionTemplate.execute(status -> {
+            Map<UUID, BigDecimal> deltas = savePendingTransactions(trackerId, batchId, requests);
+            deltas.forEach((accountId, delta) -> this.transactionEventPublisher
+                    .publishExternalTransactionImportBalanceEvent(batchId, trackerId, accountId, delta));
+            return deltas;
+        });
+        return new TransactionBatchResponse(batchId, requests.size(), List.copyOf(accountDeltas.keySet()));
+    }
+
+    public void completeImportedTransactions(UUID importId, UUID accountId, TransactionStatus status) {
+        log.debug("Completing imported transactions: importId={}, accountId={}, status={}", importId, accountId, status);
+        List<UUID> transactionIds =
+                this.transactionRepository.findIdsByImportIdAndAccountIdAndStatus(importId, accountId, TransactionStatus.PENDING);
+        updateStatuses(transactionIds, status);
+    }
+
+    // Возвращает события, транзакций которых ещё нет в БД (событие обогнало коммит создания):
+    // они не помечаются обработанными и должны уйти на повтор
+    public Set<UUID> applyStatusEvents(Map<UUID, UUID> transactionIdsByEventId, TransactionStatus status) {
+        log.debug("Applying status events: count={}, status={}", transactionIdsByEventId.size(), status);
+        // Отсев по фильтру не гарантирует однократности, но повтор здесь безвреден: статус меняется только
+        // у заблокированных PENDING-транзакций
+        Map<UUID, UUID> unprocessed = new LinkedHashMap<>(transactionIdsByEventId);
+        unprocessed.keySet().removeAll(this.processedEventService.findProcessedEvents(transactionIdsByEventId.keySet()));
+        if (unprocessed.isEmpty()) {
+            log.info("All {} status events already processed, skipping", transactionIdsByEventId.size());
+            return Set.of();
+        }
+
+        // PENDING-транзакции не попадают в кэш деталей, поэтому инвалидация после смены статуса не нужна
+        return this.transactionTemplate.execute(txStatus -> {
+            Map<UUID, TransactionStatus> statuses = new HashMap<>();
+            this.transactionRepository.findStatusesByIdIn(new HashSet<>(unprocessed.values()))
+                    .forEach(view -> statuses.put(view.id(), view.status()));
+
+            Set<UUID> pendingCandidates = new HashSet<>();
+            statuses.forEach((transactionId, transactionStatus) -> {
+                if (transactionStatus == TransactionStatus.PENDING) {
+                    pendingCandidates.add(transactionId);
+                }
+            });
+            List<UUID> pendingIds = pendingCandidates.isEmpty()
+                    ? List.of()
+                    : this.transactionRepository.lockIdsByIdInAndStatus(pendingCandidates, TransactionStatus.PENDING);
+            if (!pendingIds.isEmpty()) {
+                this.transactionRepository.updateStatusByIdInAndStatus(pendingIds, TransactionStatus.PENDING, status, Instant.now());
+                if (status == TransactionStatus.COMPLETED) {
+                    this.transactionSummaryService.addCompleted(pendingIds);
+                }
+            }
+
+            // Обработанными считаются только события существующих транзакций - PENDING или уже завершённых
+            Set<UUID> processedEventIds = new HashSet<>();
+            Set<UUID> missingEventIds = new HashSet<>();
+            unprocessed.forEach((eventId, transactionId) ->
+                    (statuses.containsKey(transactionId) ? processedEventIds : missingEventIds).add(eventId));
+            if (!processedEventIds.isEmpty()) {
+                this.processedEventService.markEventsAsProcessed(processedEventIds);
+            }
+            log.debug("Applied status {} to {} of {} transactions, {} not found",
+                    status, pendingIds.size(), unprocessed.size(), missingEventIds.size());
+            return missingEventIds;
+        });
+    }
+
+    // Строки пакета помечаются importId = batchId и завершаются тем же путём, что и строки импорта
+    private Map<UUID, BigDecimal> savePendingTransactions(UUID trackerId, UUID batchId, List<TransactionCreateRequest> requests) {
+        int chunkSize = this.processingProperties.batchChunkSize();
+        Map<UUID, BigDecimal> accountDeltas = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionCreateRequest request = requests.get(i);
+            Transaction transaction = buildPendingTransaction(trackerId, batchId, request);
+            this.entityManager.persist(transaction);
+
+            BigDecimal delta = request.type() == TransactionType.INCOME ? request.amount() : request.amount().negate();
+            accountDeltas.merge(request.accountId(), delta, BigDecimal::add);
+
+            if ((i + 1) % chunkSize == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+        return accountDeltas;
+    }
+
+    private void updateStatuses(List<UUID> transactionIds, TransactionStatus status) {
+        int chunkSize = this.processingProperties.batchChunkSize();
+        Instant now = Instant.now();
+        for (int from = 0; from < transactionIds.size(); from += chunkSize) {
+            List<UUID> chunk = transactionIds.subList(from, Math.min(from + chunkSize, transactionIds.size()));
+            this.transactionTemplate.executeWithoutResult(txStatus -> {
+                // Отменённые, изменённые или уже завершённые параллельно строки не меняются и не попадают в сводки
+                List<UUID> pendingIds = this.transactionRepository.lockIdsByIdInAndStatus(chunk, TransactionStatus.PENDING);
+                if (pendingIds.isEmpty()) {
+                    return;
+                }
+                this.transactionRepository.updateStatusByIdInAndStatus(pendingIds, TransactionStatus.PENDING, status, now);
+                if (status == TransactionStatus.COMPLETED) {
+                    this.transactionSummaryService.addCompleted(pendingIds);
+                }
+            });
+        }
+    }
+
+    private Transaction buildPendingTransaction(UUID trackerId, UUID batchId, TransactionCreateRequest request) {
+        Transaction transaction = new Transaction();
+
+        transaction.setTrackerId(trackerId);
+        transaction.setImportId(batchId);
+        transaction.setAmount(request.amount());
+        transaction.setAccountId(request.accountId());
+        transaction.setDescription(request.description());
+        transaction.setCategoryId(request.categoryId());
+        transaction.setType(request.type());
+        transaction.setTags(request.tags());
+        transaction.setStatus(TransactionStatus.PENDING);
+
+        return transaction;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
+import ru.mirea.newrav1k.transactionservice.model.enums.ExportFormat;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String CSV_HEADER = "id,trackerId,amount,type,categoryId,accountId,description,tags,status,createdAt";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public TransactionExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        // Postgres отдаёт строки курсором порциями по fetchSize только внутри транзакции (autocommit=false)
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(UUID trackerId, TransactionFilter filter, ExportFormat format, OutputStream outputStream) throws IOException {
+        log.debug("Exporting transactions: trackerId={}, filter={}, format={}", trackerId, filter, format);
+        List<Object> arguments = new ArrayList<>();
+        String sql = buildExportQuery(trackerId, filter, arguments);
+        try (RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(outputStream) : new NdjsonRowWriter(outputStream)) {
+            this.transactionTemplate.executeWithoutResult(status ->
+                    this.jdbcTemplate.query(sql, resultSet -> {
+                        try {
+                            rowWriter.write(mapRow(resultSet));
+                        } catch (IOException exception) {
+                            throw new UncheckedIOException(exception);
+                        }
+                    }, arguments.toArray()));
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private String buildExportQuery(UUID trackerId, TransactionFilter filter, List<Object> arguments) {
+        StringBuilder sql = new StringBuilder("""
+                select t.id, t.tracker_id, t.amount, t.type, t.category_id, t.account_id, t.description, t.status, t.created_at,
+                       array(select g.tags from transaction_management.t_transaction_tags g where g.transaction_id = t.id) as tags
+                from transaction_management.t_transactions t
+                where t.tracker_id = ?
+                """);
+        arguments.add(trackerId);
+
+        if (StringUtils.hasText(filter.type())) {
+            sql.append(" and t.type like ?");
+            arguments.add("%" + filter.type() + "%");
+        }
+
+        if (Objects.nonNull(filter.createdAtFrom()) && Objects.nonNull(filter.createdAtTo())) {
+            sql.append(" and t.created_at between ? and ?");
+            arguments.add(Timestamp.from(filter.createdAtFrom()));
+            arguments.add(Timestamp.from(filter.createdAtTo()));
+        } else if (Objects.nonNull(filter.createdAtFrom())) {
+            sql.append(" and t.created_at > ?");
+            arguments.add(Timestamp.from(filter.createdAtFrom()));
+        } else if (Objects.nonNull(filter.createdAtTo())) {
+            sql.append(" and t.created_at < ?");
+            arguments.add(Timestamp.from(filter.createdAtTo()));
+        }
+
+        return sql.append(" order by t.created_at, t.id").toString();
+    }
+
+    private TransactionResponse mapRow(ResultSet resultSet) throws SQLException {
+        Array tags = resultSet.getArray("tags");
+        return new TransactionResponse(
+                resultSet.getObject("id", UUID.class),
+                resultSet.getObject("tracker_id", UUID.class),
+                resultSet.getBigDecimal("amount"),
+                TransactionType.valueOf(resultSet.getString("type")),
+                resultSet.getObject("category_id", UUID.class),
+                resultSet.getObject("account_id", UUID.class),
+                resultSet.getString("description"),
+                tags != null ? Arrays.asList((String[]) tags.getArray()) : List.of(),
+                TransactionStatus.valueOf(resultSet.getString("status")),
+                resultSet.getObject("created_at", OffsetDateTime.class).toInstant()
+        );
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        void write(TransactionResponse transaction) throws IOException;
+
+        @Override
+        void close() throws IOException;
+
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final SequenceWriter sequenceWriter;
+
+        private NdjsonRowWriter(OutputStream outputStream) throws IOException {
+            // Генератор Jackson буферизует вывод сам; сброс после каждой записи отправлял бы каждую транзакцию отдельным чанком
+            this.sequenceWriter = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream);
+        }
+
+        @Override
+        public void write(TransactionResponse transaction) throws IOException {
+            this.sequenceWriter.write(transaction);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.sequenceWriter.close();
+        }
+
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream outputStream) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.writer.write(CSV_HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(TransactionResponse transaction) throws IOException {
+            this.writer.write(String.join(",",
+                    transaction.id().toString(),
+                    transaction.trackerId().toString(),
+                    transaction.amount().toPlainString(),
+                    transaction.type().name(),
+                    transaction.categoryId().toString(),
+                    transaction.accountId().toString(),
+                    escape(transaction.description()),
+                    escape(String.join(";", transaction.tags())),
+                    transaction.status().name(),
+                    transaction.createdAt().toString()
+            ));
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.writer.close();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mirea.newrav1k.transactionservice.event.publisher.TransactionEventPublisher;
+import ru.mirea.newrav1k.transactionservice.exception.TransactionImportException;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionImportRejection;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionImportResponse;
+import ru.mirea.newrav1k.transactionservice.model.enums.StatementFormat;
+import ru.mirea.newrav1k.transactionservice.service.statement.StatementParser;
+import ru.mirea.newrav1k.transactionservice.service.statement.StatementRow;
+import ru.mirea.newrav1k.transactionservice.service.statement.StatementRowHandler;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class TransactionImportService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private static final String CREATE_STAGING_TABLE = """
+            create temp table import_staging (
+                id uuid not null default gen_random_uuid(),
+                line bigint not null,
+                amount numeric(19, 2) not null,
+                type varchar(255) not null,
+                category_id uuid not null,
+                account_id uuid not null,
+                description varchar(500),
+                tags text[] not null,
+                posted_at timestamptz
+            ) on commit drop
+            """;
+
+    private static final String COPY_STAGING = """
+            copy import_staging (line, amount, type, category_id, account_id, description, tags, posted_at)
+            from stdin with (format csv)
+            """;
+
+    private static final String PROMOTE_TRANSACTIONS = """
+            insert into transaction_management.t_transactions
+                (id, tracker_id, amount, type, category_id, account_id, description, status, import_id,
+                 created_at, updated_at, version)
+            select s.id, ?, s.amount, s.type, s.category_id, s.account_id, s.description, 'PENDING', ?,
+                   coalesce(s.posted_at, ?), ?, 0
+            from import_staging s
+            """;
+
+    private static final String PROMOTE_TAGS = """
+            insert into transaction_management.t_transaction_tags (transaction_id, tags)
+            select s.id, unnest(s.tags)
+            from import_staging s
+            """;
+
+    private static final String ACCOUNT_DELTAS = """
+            select s.account_id, sum(case when s.type = 'INCOME' then s.amount else -s.amount end) as delta
+            from import_staging s
+            group by s.account_id
+            """;
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionEventPublisher transactionEventPublisher;
+
+    private final Validator validator;
+
+    private final MessageSource messageSource;
+
+    private final Map<StatementFormat, StatementParser> parsers = new EnumMap<>(StatementFormat.class);
+
+    public TransactionImportService(DataSource dataSource, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    TransactionEventPublisher transactionEventPublisher, Validator validator,
+                                    MessageSource messageSource, List<StatementParser> parsers) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionEventPublisher = transactionEventPublisher;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        parsers.forEach(parser -> this.parsers.put(parser.getFormat(), parser));
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    public TransactionImportResponse importStatement(UUID trackerId, StatementFormat format, InputStream inputStream,
+                                                     UUID defaultAccountId, UUID defaultCategoryId) {
+        log.debug("Importing statement: trackerId={}, format={}", trackerId, format);
+        UUID importId = UUID.randomUUID();
+        StatementParser parser = this.parsers.get(format);
+        ImportResult result = this.transactionTemplate.execute(status -> {
+            this.jdbcTemplate.execute(CREATE_STAGING_TABLE);
+            ImportResult importResult = copyToStaging(parser, inputStream, defaultAccountId, defaultCategoryId);
+            if (importResult.imported > 0) {
+                promoteStaging(trackerId, importId);
+            }
+            return importResult;
+        });
+        log.info("Statement {} imported: imported={}, rejected={}", importId, result.imported, result.rejected);
+        return new TransactionImportResponse(importId, result.imported, result.rejected, result.rejections);
+    }
+
+    private ImportResult copyToStaging(StatementParser parser, InputStream inputStream,
+                                      UUID defaultAccountId, UUID defaultCategoryId) {
+        // Соединение берётся из текущей транзакции: временная таблица видна только в нём
+        Connection connection = DataSourceUtils.getConnection(this.dataSource);
+        ImportResult result = new ImportResult();
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING, COPY_BUFFER_SIZE),
+                     StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+            parser.parse(reader, defaultAccountId, defaultCategoryId, new StatementRowHandler() {
+
+                @Override
+                public void handleRow(StatementRow row) {
+                    Set<ConstraintViolation<TransactionCreateRequest>> violations = validator.validate(row.request());
+                    if (!violations.isEmpty()) {
+                        result.reject(row.line(), violations.stream().map(ConstraintViolation::getMessageTemplate).toList());
+                        return;
+                    }
+                    try {
+                        writeCopyRow(writer, row);
+                        result.imported++;
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                }
+
+                @Override
+                public void handleMalformedRow(long line, String error) {
+                    result.reject(line, List.of(error));
+                }
+
+            });
+        } catch (IOException | UncheckedIOException | SQLException exception) {
+            log.error("Failed to load statement into staging table", exception);
+            throw new TransactionImportException(exception);
+        }
+        return result;
+    }
+
+    private void promoteStaging(UUID trackerId, UUID importId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int transactions = this.jdbcTemplate.update(PROMOTE_TRANSACTIONS, trackerId, importId, now, now);
+        int tags = this.jdbcTemplate.update(PROMOTE_TAGS);
+        log.debug("Promoted staging rows: importId={}, transactions={}, tags={}", importId, transactions, tags);
+
+        // Одно событие на счёт: баланс меняется одним вызовом account-service вместо вызова на каждую строку
+        Map<UUID, BigDecimal> accountDeltas = new LinkedHashMap<>();
+        this.jdbcTemplate.query(ACCOUNT_DELTAS, resultSet -> {
+            accountDeltas.put(resultSet.getObject("account_id", UUID.class), resultSet.getBigDecimal("delta"));
+        });
+        accountDeltas.forEach((accountId, delta) -> this.transactionEventPublisher
+                .publishExternalTransactionImportBalanceEvent(importId, trackerId, accountId, delta));
+    }
+
+    private static void writeCopyRow(Writer writer, StatementRow row) throws IOException {
+        TransactionCreateRequest request = row.request();
+        writer.write(Long.toString(row.line()));
+        writer.write(',');
+        writer.write(request.amount().toPlainString());
+        writer.write(',');
+        writer.write(request.type().name());
+        writer.write(',');
+        writer.write(request.categoryId().toString());
+        writer.write(',');
+        writer.write(request.accountId().toString());
+        writer.write(',');
+        if (request.description() != null) {
+            writer.write(quote(request.description()));
+        }
+        writer.write(',');
+        writer.write(quote(toArrayLiteral(request.tags())));
+        writer.write(',');
+        if (row.postedAt() != null) {
+            writer.write(row.postedAt().toString());
+        }
+        writer.write('\n');
+    }
+
+    private static String toArrayLiteral(List<String> tags) {
+        StringBuilder literal = new StringBuilder("{");
+        if (tags != null) {
+            for (int i = 0; i < tags.size(); i++) {
+                if (i > 0) {
+                    literal.append(',');
+                }
+                literal.append('"')
+                        .append(tags.get(i).replace("\\", "\\\\").replace("\"", "\\\""))
+                        .append('"');
+            }
+        }
+        return literal.append('}').toString();
+    }
+
+    private static String quote(String value) {
+        // В формате csv пустое значение без кавычек - это NULL, поэтому строки всегда берём в кавычки
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private final class ImportResult {
+
+        private final List<TransactionImportRejection> rejections = new ArrayList<>();
+
+        private long imported;
+
+        private long rejected;
+
+        private void reject(long line, List<String> errors) {
+            this.rejected++;
+            if (this.rejections.size() < MAX_REPORTED_REJECTIONS) {
+                List<String> messages = errors.stream()
+                        .map(error -> messageSource.getMessage(error, new Object[0], error, LocaleContextHolder.getLocale()))
+                        .toList();
+                this.rejections.add(new TransactionImportRejection(line, messages));
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
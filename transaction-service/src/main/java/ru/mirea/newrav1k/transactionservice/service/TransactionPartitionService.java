@@ -0,0 +1,125 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mirea.newrav1k.core.partition.PartitionedTable;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.TransactionPartitionProperties;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+@Slf4j
+@Service
+public class TransactionPartitionService {
+
+    private static final String SCHEMA = "transaction_management";
+
+    private static final String TABLE = "t_transactions";
+
+    private static final String QUALIFIED_TABLE = SCHEMA + "." + TABLE;
+
+    private static final String TAGS_TABLE = SCHEMA + ".t_transaction_tags";
+
+    private static final String PARTITION_PREFIX = TABLE + "_";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionPartitionProperties partitionProperties;
+
+    private final PartitionedTable partitionedTable;
+
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate, TransactionPartitionProperties partitionProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionProperties = partitionProperties;
+        this.partitionedTable = new PartitionedTable(jdbcTemplate, SCHEMA, TABLE);
+    }
+
+    @Transactional
+    public void convertToPartitionedTable() {
+        boolean converted = this.partitionedTable.convert("created_at",
+                legacy -> "like " + legacy + " including defaults including constraints",
+                this::createPartitionsFrom,
+                legacy -> this.jdbcTemplate.execute("insert into " + QUALIFIED_TABLE + " select * from " + legacy));
+        if (!converted) {
+            return;
+        }
+        this.jdbcTemplate.execute("alter table " + QUALIFIED_TABLE + " add primary key (id, created_at)");
+        this.jdbcTemplate.execute("create index idx_transaction_tracker_ids on " + QUALIFIED_TABLE + " (tracker_id)");
+        this.jdbcTemplate.execute("create index idx_transaction_statuses on " + QUALIFIED_TABLE + " (status)");
+        this.jdbcTemplate.execute("create index idx_transaction_tracker_created_ids on " + QUALIFIED_TABLE
+                + " (tracker_id, created_at desc, id desc)");
+        this.jdbcTemplate.execute("create index idx_transaction_import_account_ids on " + QUALIFIED_TABLE
+                + " (import_id, account_id)");
+    }
+
+    @Transactional
+    public void createFuturePartitions() {
+        this.partitionedTable.lock();
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= this.partitionProperties.monthsAhead(); i++) {
+            createMonthlyPartition(current.plusMonths(i));
+        }
+    }
+
+    @Transactional
+    public void detachExpiredPartitions() {
+        this.partitionedTable.lock();
+        YearMonth retentionBoundary = YearMonth.now(ZoneOffset.UTC).minusMonths(this.partitionProperties.retentionMonths());
+        for (String partition : this.partitionedTable.findPartitions()) {
+            YearMonth month = parsePartitionMonth(partition);
+            if (month != null && month.isBefore(retentionBoundary)) {
+                log.info("Detaching expired partition {}", partition);
+                int archivedTags = archiveTags(partition);
+                log.debug("Archived {} tags of expired partition {}", archivedTags, partition);
+                this.jdbcTemplate.execute("alter table " + QUALIFIED_TABLE + " detach partition " + SCHEMA + "." + partition);
+            }
+        }
+    }
+
+    // Теги не секционированы и без внешнего ключа на t_transactions, поэтому переезжают в таблицу <секция>_tags
+    // рядом с отсоединённой секцией: архив остаётся полным, а в рабочей таблице не копятся осиротевшие строки
+    private int archiveTags(String partition) {
+        String archiveTable = SCHEMA + "." + partition + "_tags";
+        this.jdbcTemplate.execute("create table if not exists " + archiveTable + " (like " + TAGS_TABLE + " including defaults)");
+        return this.jdbcTemplate.update("with moved as (delete from " + TAGS_TABLE
+                + " where transaction_id in (select id from " + SCHEMA + "." + partition + ") returning *)"
+                + " insert into " + archiveTable + " select * from moved");
+    }
+
+    private void createPartitionsFrom(String legacy) {
+        Timestamp oldest = legacy != null
+                ? this.jdbcTemplate.queryForObject("select min(created_at) from " + legacy, Timestamp.class)
+                : null;
+        YearMonth from = oldest != null
+                ? YearMonth.from(oldest.toInstant().atZone(ZoneOffset.UTC))
+                : YearMonth.now(ZoneOffset.UTC);
+        YearMonth to = YearMonth.now(ZoneOffset.UTC).plusMonths(this.partitionProperties.monthsAhead());
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            createMonthlyPartition(month);
+        }
+    }
+
+    private void createMonthlyPartition(YearMonth month) {
+        this.partitionedTable.createPartition(PARTITION_PREFIX + month.format(PARTITION_SUFFIX),
+                month.atDay(1) + " 00:00:00+00", month.plusMonths(1).atDay(1) + " 00:00:00+00");
+    }
+
+    private YearMonth parsePartitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+}
\ No newline at end of file
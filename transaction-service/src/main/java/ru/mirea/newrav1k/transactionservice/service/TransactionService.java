@@ -4,14 +4,20 @@ import com.fasterxml.jackson.databind.JsonNode;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import ru.mirea.newrav1k.transactionservice.event.publisher.TransactionEventPublisher;
 import ru.mirea.newrav1k.transactionservice.exception.TransactionAccessDeniedException;
 import ru.mirea.newrav1k.transactionservice.exception.TransactionNotFoundException;
@@ -19,6 +25,8 @@ import ru.mirea.newrav1k.transactionservice.exception.TransactionProcessingExcep
 import ru.mirea.newrav1k.transactionservice.exception.TransactionServiceException;
 import ru.mirea.newrav1k.transactionservice.mapper.TransactionMapper;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCursor;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCursorPage;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
 import ru.mirea.newrav1k.transactionservice.model.dto.TransactionUpdateRequest;
@@ -27,8 +35,10 @@ import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
 import ru.mirea.newrav1k.transactionservice.repository.TransactionRepository;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
+import static ru.mirea.newrav1k.transactionservice.configuration.CacheConfiguration.TRANSACTION_DETAILS_CACHE;
 import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.TRANSACTION_UPDATE_FAILED;
 
 @Slf4j
@@ -37,13 +47,17 @@ import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.TRANSACTION
 @Transactional(readOnly = true)
 public class TransactionService {
 
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final TransactionRepository transactionRepository;
 
     private final TransactionMapper transactionMapper;
 
     private final TransactionEventPublisher transactionEventPublisher;
 
-    // TODO: добавить кэширование
+    private final TransactionSummaryService transactionSummaryService;
+
+    private final CacheManager cacheManager;
 
     @PreAuthorize("hasRole('ADMIN')")
     public Page<TransactionResponse> findAll(TransactionFilter filter, Pageable pageable) {
@@ -62,6 +76,30 @@ public class TransactionService {
                 .map(this.transactionMapper::toTransactionResponse);
     }
 
+    @PreAuthorize("isAuthenticated()")
+    public TransactionCursorPage findAllByTrackerId(UUID trackerId, TransactionFilter filter, String cursor, int size) {
+        log.debug("Finding transactions by cursor: trackerId={}, filter={}, cursor={}", trackerId, filter, cursor);
+        TransactionFilter updatedFilter = new TransactionFilter(trackerId, filter.type(), filter.createdAtFrom(), filter.createdAtTo());
+        TransactionCursor transactionCursor = StringUtils.hasText(cursor) ? TransactionCursor.decode(cursor) : null;
+        Specification<Transaction> specification = this.transactionRepository.buildTransactionSpecification(updatedFilter)
+                .and(this.transactionRepository.buildKeysetSpecification(transactionCursor));
+
+        // Запрашиваем на одну запись больше, чтобы узнать о наличии следующей страницы без count(*)
+        List<Transaction> transactions = this.transactionRepository.findBy(specification,
+                query -> query.sortBy(KEYSET_SORT).limit(size + 1).all());
+
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            Transaction last = transactions.get(size - 1);
+            nextCursor = new TransactionCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new TransactionCursorPage(
+                transactions.stream().map(this.transactionMapper::toTransactionResponse).toList(),
+                nextCursor
+        );
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     public TransactionResponse findById(UUID transactionId) {
         log.debug("Finding transaction: transactionId={}", transactionId);
@@ -71,6 +109,8 @@ public class TransactionService {
     }
 
     @PreAuthorize("isAuthenticated()")
+    @Cacheable(value = TRANSACTION_DETAILS_CACHE, key = "#trackerId + '-' + #transactionId",
+            unless = "#result.status().name() == 'PENDING'")
     public TransactionResponse findByTrackerIdAndId(UUID trackerId, UUID transactionId) {
         log.debug("Finding transaction: trackerId={}, transactionId={}", trackerId, transactionId);
         return this.transactionRepository.findTransactionByTrackerIdAndId(trackerId, transactionId)
@@ -97,6 +137,31 @@ public class TransactionService {
 
     @PreAuthorize("isAuthenticated()")
     @Transactional
+    public TransactionResponse accept(UUID trackerId, TransactionCreateRequest request) {
+        log.debug("Accepting transaction: trackerId={}, request={}", trackerId, request);
+        Transaction transaction = savePendingTransaction(trackerId, request);
+
+        this.transactionEventPublisher.publishExternalTransactionAcceptedEvent(
+                transaction.getId(),
+                trackerId,
+                transaction.getAccountId(),
+                transaction.getType(),
+                transaction.getAmount()
+        );
+
+        return this.transactionMapper.toTransactionResponse(transaction);
+    }
+
+    // Вызывается консьюмером без SecurityContext, поэтому вместо @PreAuthorize поиск ограничен trackerId из события
+    public boolean isPending(UUID trackerId, UUID transactionId) {
+        return this.transactionRepository.findTransactionByTrackerIdAndId(trackerId, transactionId)
+                .map(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+                .orElse(false);
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @Transactional
+    @CacheEvict(value = TRANSACTION_DETAILS_CACHE, key = "#trackerId + '-' + #transactionId")
     public TransactionResponse updateById(UUID trackerId, UUID transactionId, TransactionUpdateRequest request) {
         log.debug("Updating transaction: trackerId={}, transactionId={}, request={}", trackerId, transactionId, request);
         return this.transactionRepository.findTransactionByTrackerIdAndId(trackerId, transactionId)
@@ -113,6 +178,7 @@ public class TransactionService {
                                     transaction.getAmount(),
                                     request.amount()
                             );
+                            applySummaryAmountChange(transaction, request.amount());
                             transaction.setAmount(request.amount());
                         } else {
                             log.warn("Transaction amount equals request amount {}", request.amount());
@@ -126,6 +192,7 @@ public class TransactionService {
 
     @PreAuthorize("isAuthenticated()")
     @Transactional
+    @CacheEvict(value = TRANSACTION_DETAILS_CACHE, key = "#trackerId + '-' + #transactionId")
     public TransactionResponse updateById(UUID trackerId, UUID transactionId, JsonNode jsonNode) {
         log.debug("Updating transaction: trackerId={}, transactionId={}, jsonNode={}", trackerId, transactionId, jsonNode);
         Transaction transaction = findTransactionByTrackerIdAndId(trackerId, transactionId);
@@ -143,6 +210,7 @@ public class TransactionService {
                             transaction.getAmount(),
                             requestAmount
                     );
+                    applySummaryAmountChange(transaction, requestAmount);
                     transaction.setAmount(requestAmount);
                 } else {
                     log.warn("Transaction amount equals request amount {}", requestAmount);
@@ -157,6 +225,7 @@ public class TransactionService {
 
     @PreAuthorize("isAuthenticated() or hasRole('ADMIN')")
     @Transactional
+    @CacheEvict(value = TRANSACTION_DETAILS_CACHE, key = "#trackerId + '-' + #transactionId")
     public void deleteById(UUID trackerId, UUID transactionId) {
         log.debug("Deleting transaction: trackerId={}, transactionId={}", trackerId, transactionId);
         Transaction transaction = findTransactionByTrackerIdAndId(trackerId, transactionId);
@@ -172,6 +241,7 @@ public class TransactionService {
                 log.error("Error while deleting transaction by id {}", transactionId, exception);
                 throw new TransactionProcessingException();
             }
+            this.transactionSummaryService.removeCompleted(List.of(transaction.getId()));
         }
         this.transactionRepository.delete(transaction);
     }
@@ -181,8 +251,30 @@ public class TransactionService {
         log.debug("Updating transaction status: transactionId={}, status={}", transactionId, status);
         Transaction transaction = this.transactionRepository.findById(transactionId)
                 .orElseThrow(TransactionNotFoundException::new);
+        TransactionStatus previousStatus = transaction.getStatus();
         transaction.setStatus(status);
         this.transactionRepository.save(transaction);
+        // trackerId известен только после загрузки транзакции, поэтому ключ вычисляется здесь, а не в @CacheEvict
+        evictTransactionDetails(transaction);
+
+        if (previousStatus != TransactionStatus.COMPLETED && status == TransactionStatus.COMPLETED) {
+            this.transactionSummaryService.addCompleted(List.of(transactionId));
+        } else if (previousStatus == TransactionStatus.COMPLETED && status != TransactionStatus.COMPLETED) {
+            this.transactionSummaryService.removeCompleted(List.of(transactionId));
+        }
+    }
+
+    private void evictTransactionDetails(Transaction transaction) {
+        Cache cache = this.cacheManager.getCache(TRANSACTION_DETAILS_CACHE);
+        if (cache != null) {
+            cache.evict(transaction.getTrackerId() + "-" + transaction.getId());
+        }
+    }
+
+    private void applySummaryAmountChange(Transaction transaction, BigDecimal newAmount) {
+        if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+            this.transactionSummaryService.applyAmountChange(transaction, transaction.getAmount(), newAmount);
+        }
     }
 
     private Transaction savePendingTransaction(UUID trackerId, TransactionCreateRequest request) {
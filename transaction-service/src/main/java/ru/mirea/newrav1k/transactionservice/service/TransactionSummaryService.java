@@ -0,0 +1,67 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mirea.newrav1k.transactionservice.mapper.TransactionMapper;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionSummaryResponse;
+import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionSummaryRepository;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TransactionSummaryService {
+
+    private final TransactionSummaryRepository transactionSummaryRepository;
+
+    private final TransactionMapper transactionMapper;
+
+    @PreAuthorize("isAuthenticated()")
+    public List<TransactionSummaryResponse> findAllByTrackerId(UUID trackerId, YearMonth from, YearMonth to) {
+        log.debug("Finding transaction summaries: trackerId={}, from={}, to={}", trackerId, from, to);
+        return this.transactionSummaryRepository.findAllByTrackerIdAndMonthBetweenOrderByMonthAscCategoryIdAsc(
+                        trackerId, from.atDay(1), to.atDay(1))
+                .stream()
+                .map(this.transactionMapper::toTransactionSummaryResponse)
+                .toList();
+    }
+
+    @Transactional
+    public void addCompleted(Collection<UUID> transactionIds) {
+        log.debug("Adding completed transactions to summaries: count={}", transactionIds.size());
+        this.transactionSummaryRepository.applyTransactions(transactionIds, 1);
+    }
+
+    @Transactional
+    public void removeCompleted(Collection<UUID> transactionIds) {
+        log.debug("Removing completed transactions from summaries: count={}", transactionIds.size());
+        this.transactionSummaryRepository.applyTransactions(transactionIds, -1);
+    }
+
+    @Transactional
+    public void applyAmountChange(Transaction transaction, BigDecimal oldAmount, BigDecimal newAmount) {
+        log.debug("Applying amount change to summaries: transactionId={}", transaction.getId());
+        BigDecimal delta = newAmount.subtract(oldAmount);
+        boolean income = transaction.getType() == TransactionType.INCOME;
+        this.transactionSummaryRepository.applyDelta(
+                transaction.getTrackerId(),
+                YearMonth.from(transaction.getCreatedAt().atZone(ZoneOffset.UTC)).atDay(1),
+                transaction.getCategoryId(),
+                income ? delta : BigDecimal.ZERO,
+                income ? BigDecimal.ZERO : delta
+        );
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package ru.mirea.newrav1k.transactionservice.service.client;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.MetadataUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ru.mirea.newrav1k.core.grpc.GrpcMetadata;
+import ru.mirea.newrav1k.core.grpc.account.AccountBalanceServiceGrpc;
+import ru.mirea.newrav1k.core.grpc.account.TransferFundsRequest;
+import ru.mirea.newrav1k.core.grpc.account.UpdateBalanceRequest;
+import ru.mirea.newrav1k.transactionservice.configuration.properties.AccountGrpcProperties;
+import ru.mirea.newrav1k.transactionservice.exception.AccountOperationRejectedException;
+import ru.mirea.newrav1k.transactionservice.security.HeaderAuthenticationDetails;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static ru.mirea.newrav1k.core.grpc.ProtoConverters.toProto;
+
+// Операции с балансом идут по gRPC; при недоступности транспорта вызов повторяется через Feign.
+// Повтор безопасен: account-service отбрасывает операцию с уже применённым transactionId
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBalanceClient {
+
+    // DEADLINE_EXCEEDED сюда не входит: операция могла успеть примениться, и немедленный повтор через Feign
+    // пересёкся бы с ней. Такая ошибка уходит вызывающему как 5xx и повторяется по его политике
+    private static final Set<Status.Code> TRANSPORT_FAILURES = EnumSet.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.UNIMPLEMENTED
+    );
+
+    private final AccountClient accountClient;
+
+    private final ManagedChannelPool accountChannelPool;
+
+    private final AccountGrpcProperties grpcProperties;
+
+    public void updateBalance(UUID accountId, UUID transactionId, BigDecimal amount) {
+        if (!this.grpcProperties.enabled()) {
+            this.accountClient.updateBalance(accountId, transactionId, amount);
+            return;
+        }
+        UpdateBalanceRequest request = UpdateBalanceRequest.newBuilder()
+                .setAccountId(toProto(accountId))
+                .setTransactionId(toProto(transactionId))
+                .setAmount(toProto(amount))
+                .build();
+        try {
+            stub().updateBalance(request);
+        } catch (StatusRuntimeException exception) {
+            handleFailure(exception, () -> this.accountClient.updateBalance(accountId, transactionId, amount));
+        }
+    }
+
+    public void transferFunds(UUID fromAccountId, UUID toAccountId, UUID transactionId, BigDecimal amount) {
+        if (!this.grpcProperties.enabled()) {
+            this.accountClient.transferFunds(fromAccountId, toAccountId, transactionId, amount);
+            return;
+        }
+        TransferFundsRequest request = TransferFundsRequest.newBuilder()
+                .setFromAccountId(toProto(fromAccountId))
+                .setToAccountId(toProto(toAccountId))
+                .setTransactionId(toProto(transactionId))
+                .setAmount(toProto(amount))
+                .build();
+        try {
+            stub().transferFunds(request);
+        } catch (StatusRuntimeException exception) {
+            handleFailure(exception, () -> this.accountClient.transferFunds(fromAccountId, toAccountId, transactionId, amount));
+        }
+    }
+
+    private AccountBalanceServiceGrpc.AccountBalanceServiceBlockingStub stub() {
+        return AccountBalanceServiceGrpc.newBlockingStub(this.accountChannelPool.next())
+                .withDeadlineAfter(this.grpcProperties.deadline().toMillis(), TimeUnit.MILLISECONDS)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(trackerHeaders()));
+    }
+
+    private void handleFailure(StatusRuntimeException exception, Runnable feignFallback) {
+        Status.Code code = exception.getStatus().getCode();
+        if (TRANSPORT_FAILURES.contains(code)) {
+            log.warn("gRPC call to account-service failed with {}, falling back to HTTP", code);
+            feignFallback.run();
+            return;
+        }
+        throw new AccountOperationRejectedException(
+                exception.getStatus().getDescription() != null ? exception.getStatus().getDescription() : code.name(),
+                httpStatus(exception));
+    }
+
+    private static HttpStatus httpStatus(StatusRuntimeException exception) {
+        Metadata trailers = exception.getTrailers();
+        String value = trailers != null ? trailers.get(GrpcMetadata.HTTP_STATUS) : null;
+        HttpStatus status = value != null ? HttpStatus.resolve(Integer.parseInt(value)) : null;
+        return status != null ? status : HttpStatus.BAD_GATEWAY;
+    }
+
+    private static Metadata trackerHeaders() {
+        Metadata headers = new Metadata();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            HeaderAuthenticationDetails authenticationDetails = (HeaderAuthenticationDetails) authentication.getPrincipal();
+            headers.put(GrpcMetadata.TRACKER_ID, authenticationDetails.getTrackerId().toString());
+            headers.put(GrpcMetadata.TRACKER_AUTHORITIES, authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.joining(", ")));
+        }
+        return headers;
+    }
+
+}
\ No newline at end of file
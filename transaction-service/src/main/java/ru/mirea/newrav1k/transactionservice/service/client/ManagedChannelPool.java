@@ -0,0 +1,49 @@
+package ru.mirea.newrav1k.transactionservice.service.client;
+
+import io.grpc.ManagedChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Каждый канал - одно HTTP/2-соединение с мультиплексированием вызовов; несколько каналов
+// обходят лимит одновременных потоков на соединение и распределяют нагрузку по event loop'ам
+@Slf4j
+public class ManagedChannelPool implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5L;
+
+    private final List<ManagedChannel> channels;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ManagedChannelPool(int size, Supplier<ManagedChannel> channelFactory) {
+        this.channels = IntStream.range(0, size)
+                .mapToObj(i -> channelFactory.get())
+                .toList();
+    }
+
+    public ManagedChannel next() {
+        return this.channels.get(Math.floorMod(this.next.getAndIncrement(), this.channels.size()));
+    }
+
+    @Override
+    public void close() {
+        this.channels.forEach(ManagedChannel::shutdown);
+        for (ManagedChannel channel : this.channels) {
+            try {
+                if (!channel.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    channel.shutdownNow();
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                channel.shutdownNow();
+            }
+        }
+        log.debug("Closed {} gRPC channels", this.channels.size());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.mirea.newrav1k.transactionservice.exception.TransactionImportException;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.enums.StatementFormat;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.TRANSACTION_IMPORT_ROW_INVALID;
+
+@Component
+public class CsvStatementParser implements StatementParser {
+
+    private static final String DATE = "date";
+
+    private static final String AMOUNT = "amount";
+
+    private static final String TYPE = "type";
+
+    private static final String CATEGORY_ID = "categoryid";
+
+    private static final String ACCOUNT_ID = "accountid";
+
+    private static final String DESCRIPTION = "description";
+
+    private static final String TAGS = "tags";
+
+    @Override
+    public StatementFormat getFormat() {
+        return StatementFormat.CSV;
+    }
+
+    @Override
+    public void parse(Reader reader, UUID defaultAccountId, UUID defaultCategoryId, StatementRowHandler handler) throws IOException {
+        RecordReader recordReader = new RecordReader(new BufferedReader(reader));
+        List<String> header = recordReader.next();
+        if (header == null) {
+            throw new TransactionImportException();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey(AMOUNT)) {
+            throw new TransactionImportException();
+        }
+
+        List<String> values;
+        while ((values = recordReader.next()) != null) {
+            long line = recordReader.getRecordLine();
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                handler.handleRow(toRow(line, columns, values, defaultAccountId, defaultCategoryId));
+            } catch (IllegalArgumentException | DateTimeException exception) {
+                handler.handleMalformedRow(line, TRANSACTION_IMPORT_ROW_INVALID);
+            }
+        }
+    }
+
+    private StatementRow toRow(long line, Map<String, Integer> columns, List<String> values,
+                               UUID defaultAccountId, UUID defaultCategoryId) {
+        String amountValue = value(columns, values, AMOUNT);
+        if (!StringUtils.hasText(amountValue)) {
+            throw new IllegalArgumentException("Amount is empty");
+        }
+        BigDecimal amount = new BigDecimal(amountValue.trim());
+        String typeValue = value(columns, values, TYPE);
+        TransactionType type;
+        if (StringUtils.hasText(typeValue)) {
+            type = TransactionType.valueOf(typeValue.trim().toUpperCase(Locale.ROOT));
+        } else {
+            // Без явного типа направление операции определяется знаком суммы, как в банковских выписках
+            type = amount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+            amount = amount.abs();
+        }
+        String categoryId = value(columns, values, CATEGORY_ID);
+        String accountId = value(columns, values, ACCOUNT_ID);
+        String description = value(columns, values, DESCRIPTION);
+        String tags = value(columns, values, TAGS);
+
+        TransactionCreateRequest request = new TransactionCreateRequest(
+                amount,
+                type,
+                StringUtils.hasText(categoryId) ? UUID.fromString(categoryId.trim()) : defaultCategoryId,
+                StringUtils.hasText(accountId) ? UUID.fromString(accountId.trim()) : defaultAccountId,
+                StringUtils.hasText(description) ? description : null,
+                StringUtils.hasText(tags)
+                        ? Arrays.stream(tags.split(";")).map(String::trim).filter(StringUtils::hasText).toList()
+                        : List.of()
+        );
+        return new StatementRow(line, request, parseDate(value(columns, values, DATE)));
+    }
+
+    private static String value(Map<String, Integer> columns, List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private static Instant parseDate(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        String date = value.trim();
+        if (date.length() == 10) {
+            return LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        return Instant.parse(date);
+    }
+
+    private static final class RecordReader {
+
+        private final BufferedReader reader;
+
+        private long line = 1;
+
+        private long recordLine;
+
+        private RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        private long getRecordLine() {
+            return this.recordLine;
+        }
+
+        private List<String> next() throws IOException {
+            int current = this.reader.read();
+            if (current == -1) {
+                return null;
+            }
+            this.recordLine = this.line;
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (current != -1) {
+                char symbol = (char) current;
+                if (quoted) {
+                    if (symbol == '"') {
+                        this.reader.mark(1);
+                        if (this.reader.read() == '"') {
+                            value.append('"');
+                        } else {
+                            this.reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (symbol == '\n') {
+                            this.line++;
+                        }
+                        value.append(symbol);
+                    }
+                } else if (symbol == '"') {
+                    quoted = true;
+                } else if (symbol == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (symbol == '\n') {
+                    this.line++;
+                    break;
+                } else if (symbol != '\r') {
+                    value.append(symbol);
+                }
+                current = this.reader.read();
+            }
+            values.add(value.toString());
+            return values;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.enums.StatementFormat;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.UUID;
+
+import static ru.mirea.newrav1k.transactionservice.utils.MessageCode.TRANSACTION_IMPORT_ROW_INVALID;
+
+@Component
+public class OfxStatementParser implements StatementParser {
+
+    private static final String TRANSACTION_TAG = "STMTTRN";
+
+    private static final String AMOUNT_TAG = "TRNAMT";
+
+    private static final String POSTED_TAG = "DTPOSTED";
+
+    private static final String NAME_TAG = "NAME";
+
+    private static final String MEMO_TAG = "MEMO";
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Override
+    public StatementFormat getFormat() {
+        return StatementFormat.OFX;
+    }
+
+    @Override
+    public void parse(Reader reader, UUID defaultAccountId, UUID defaultCategoryId, StatementRowHandler handler) throws IOException {
+        // OFX 1.x (SGML) не закрывает листовые элементы, поэтому читаем поток как последовательность "<TAG>значение"
+        Scanner scanner = new Scanner(reader).useDelimiter("<");
+        Map<String, String> fields = null;
+        long ordinal = 0;
+        while (scanner.hasNext()) {
+            String token = scanner.next();
+            int end = token.indexOf('>');
+            if (end < 0) {
+                continue;
+            }
+            String tag = token.substring(0, end).trim().toUpperCase(Locale.ROOT);
+            String value = token.substring(end + 1).trim();
+
+            if (TRANSACTION_TAG.equals(tag)) {
+                fields = new HashMap<>();
+            } else if (("/" + TRANSACTION_TAG).equals(tag) && fields != null) {
+                ordinal++;
+                try {
+                    handler.handleRow(toRow(ordinal, fields, defaultAccountId, defaultCategoryId));
+                } catch (IllegalArgumentException | DateTimeException exception) {
+                    handler.handleMalformedRow(ordinal, TRANSACTION_IMPORT_ROW_INVALID);
+                }
+                fields = null;
+            } else if (fields != null && !tag.startsWith("/")) {
+                fields.put(tag, value);
+            }
+        }
+        if (scanner.ioException() != null) {
+            throw scanner.ioException();
+        }
+    }
+
+    private StatementRow toRow(long ordinal, Map<String, String> fields, UUID defaultAccountId, UUID defaultCategoryId) {
+        String amountValue = fields.get(AMOUNT_TAG);
+        if (!StringUtils.hasText(amountValue)) {
+            throw new IllegalArgumentException("TRNAMT is empty");
+        }
+        BigDecimal amount = new BigDecimal(amountValue.replace(',', '.'));
+        String name = fields.get(NAME_TAG);
+        String memo = fields.get(MEMO_TAG);
+        String description = StringUtils.hasText(name) && StringUtils.hasText(memo)
+                ? name + " " + memo
+                : StringUtils.hasText(name) ? name : memo;
+
+        TransactionCreateRequest request = new TransactionCreateRequest(
+                amount.abs(),
+                amount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME,
+                defaultCategoryId,
+                defaultAccountId,
+                StringUtils.hasText(description) ? description : null,
+                List.of()
+        );
+        return new StatementRow(ordinal, request, parseDate(fields.get(POSTED_TAG)));
+    }
+
+    private static Instant parseDate(String value) {
+        if (!StringUtils.hasText(value) || value.length() < 8) {
+            return null;
+        }
+        // Формат OFX: YYYYMMDD[HHMMSS[.XXX]][[смещение:зона]]
+        ZoneOffset offset = ZoneOffset.UTC;
+        int zoneStart = value.indexOf('[');
+        if (zoneStart >= 0) {
+            int zoneEnd = value.indexOf(':', zoneStart);
+            if (zoneEnd < 0) {
+                zoneEnd = value.indexOf(']', zoneStart);
+            }
+            if (zoneEnd < 0) {
+                throw new IllegalArgumentException("DTPOSTED time zone is not closed: " + value);
+            }
+            String hours = value.substring(zoneStart + 1, zoneEnd);
+            offset = ZoneOffset.ofTotalSeconds((int) (Double.parseDouble(hours) * 3600));
+        }
+        if (value.length() >= 14 && Character.isDigit(value.charAt(13))) {
+            return LocalDateTime.parse(value.substring(0, 14), DATE_TIME).toInstant(offset);
+        }
+        return LocalDate.parse(value.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay(offset).toInstant();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import ru.mirea.newrav1k.transactionservice.model.enums.StatementFormat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.UUID;
+
+public interface StatementParser {
+
+    StatementFormat getFormat();
+
+    void parse(Reader reader, UUID defaultAccountId, UUID defaultCategoryId, StatementRowHandler handler) throws IOException;
+
+}
\ No newline at end of file
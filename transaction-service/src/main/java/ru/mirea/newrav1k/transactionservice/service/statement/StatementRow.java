@@ -0,0 +1,13 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+
+import java.time.Instant;
+
+public record StatementRow(
+        long line,
+        TransactionCreateRequest request,
+        Instant postedAt
+) {
+
+}
\ No newline at end of file
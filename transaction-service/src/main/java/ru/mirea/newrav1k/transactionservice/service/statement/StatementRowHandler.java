@@ -0,0 +1,9 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+public interface StatementRowHandler {
+
+    void handleRow(StatementRow row);
+
+    void handleMalformedRow(long line, String error);
+
+}
\ No newline at end of file
@@ -20,4 +20,16 @@ public class MessageCode {
 
     public static final String TRANSACTION_ACCESS_DENIED = "error.transaction_access_denied";
 
+    public static final String TRANSACTION_CURSOR_INVALID = "error.transaction_cursor_invalid";
+
+    public static final String TRANSACTION_IMPORT_FAILED = "error.transaction_import_failed";
+
+    public static final String TRANSACTION_IMPORT_ROW_INVALID = "error.transaction_import_row_invalid";
+
+    public static final String DEAD_LETTER_TOPIC_UNKNOWN = "error.dead_letter_topic_unknown";
+
+    public static final String DEAD_LETTER_REPLAY_IN_PROGRESS = "error.dead_letter_replay_in_progress";
+
+    public static final String DEAD_LETTER_REPLAY_JOB_NOT_FOUND = "error.dead_letter_replay_job_not_found";
+
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ru.mirea.newrav1k.transactionservice.concurrent;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyOrderedExecutorTests {
+
+	private static final String TOPIC = "test-topic";
+
+	private final KeyOrderedExecutor executor = new KeyOrderedExecutor(4, false);
+
+	@AfterEach
+	void tearDown() {
+		this.executor.destroy();
+	}
+
+	@Test
+	void recordsOfOneKeyAreHandledInPartitionOrder() {
+		List<ConsumerRecord<String, Integer>> records = IntStream.range(0, 400)
+				.mapToObj(index -> record(index, "account-" + index % 5))
+				.toList();
+		Map<String, List<Integer>> handled = new ConcurrentHashMap<>();
+
+		this.executor.executeAll(records, value -> handled
+				.computeIfAbsent("account-" + value % 5, key -> Collections.synchronizedList(new ArrayList<>()))
+				.add(value));
+
+		assertThat(handled).hasSize(5).allSatisfy((key, values) -> {
+			List<Integer> expected = records.stream()
+					.filter(record -> record.key().equals(key))
+					.map(ConsumerRecord::value)
+					.toList();
+			assertThat(values).isEqualTo(expected);
+		});
+	}
+
+	@Test
+	void failureReportsLowestFailedIndexAndStopsOnlyItsKey() {
+		// Индексы: a=0,2,4,6  b=1,3,5,7
+		List<ConsumerRecord<String, Integer>> records = IntStream.range(0, 8)
+				.mapToObj(index -> record(index, index % 2 == 0 ? "a" : "b"))
+				.toList();
+		List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+
+		assertThatThrownBy(() -> this.executor.executeAll(records, value -> {
+			if (value == 3 || value == 4) {
+				throw new IllegalStateException("failed " + value);
+			}
+			handled.add(value);
+		})).isInstanceOfSatisfying(BatchListenerFailedException.class, exception -> {
+			assertThat(exception.getIndex()).isEqualTo(3);
+			assertThat(exception.getCause()).hasMessage("failed 3");
+		});
+		// После упавшей записи её ключ не обрабатывается, другой ключ доходит до своей ошибки
+		assertThat(handled).containsExactlyInAnyOrder(0, 1, 2);
+	}
+
+	@Test
+	void recordsWithNullKeyShareOneGroup() {
+		List<ConsumerRecord<String, Integer>> records = IntStream.range(0, 50)
+				.mapToObj(index -> record(index, null))
+				.toList();
+		List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+
+		this.executor.executeAll(records, handled::add);
+
+		assertThat(handled).isEqualTo(IntStream.range(0, 50).boxed().toList());
+	}
+
+	private static ConsumerRecord<String, Integer> record(int offset, String key) {
+		return new ConsumerRecord<>(TOPIC, 0, offset, key, offset);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package ru.mirea.newrav1k.transactionservice.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.mirea.newrav1k.transactionservice.controller.kafka.producer.TransactionProducerHandler;
+import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.OutboxStatus;
+import ru.mirea.newrav1k.transactionservice.repository.OutboxRepository;
+import ru.mirea.newrav1k.transactionservice.service.OutboxService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+// Опрос по таймеру практически отключён: claim и публикацию тесты запускают сами
+@SpringBootTest(properties = {
+		"transaction-service.outbox.dispatch-mode=POLL",
+		"transaction-service.outbox.poll-interval=3600000",
+		"transaction-service.outbox.workers=1",
+		"transaction-service.outbox.batch-size=1000",
+		"transaction-service.outbox.send-timeout=1s",
+		"transaction-service.outbox.claim-timeout=1s"
+})
+class OutboxClaimTests {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final Duration CLAIM_TIMEOUT = Duration.ofMillis(500);
+
+	private static final long TIMEOUT_MILLIS = 30_000;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private OutboxScheduler outboxScheduler;
+
+	@Autowired
+	private OutboxRepository outboxRepository;
+
+	@MockitoBean
+	private TransactionProducerHandler producerHandler;
+
+	// Ответ брокера по aggregateId; события других тестов подтверждаются сразу
+	private final Map<UUID, Supplier<CompletableFuture<?>>> sendResults = new ConcurrentHashMap<>();
+
+	private final Set<UUID> sent = ConcurrentHashMap.newKeySet();
+
+	@BeforeEach
+	void setUp() {
+		given(this.producerHandler.send(any(OutboxEvent.class))).willAnswer(invocation -> {
+			OutboxEvent event = invocation.getArgument(0);
+			this.sent.add(event.getAggregateId());
+			return this.sendResults.getOrDefault(event.getAggregateId(), () -> CompletableFuture.completedFuture(null)).get();
+		});
+	}
+
+	@Test
+	void claimedEventsAreReclaimedOnlyAfterTimeout() throws InterruptedException {
+		UUID key = UUID.randomUUID();
+		UUID first = saveEvent(key);
+		UUID second = saveEvent(key);
+		UUID otherKey = saveEvent(UUID.randomUUID());
+
+		assertThat(claimedIds()).contains(first, second, otherKey);
+		assertThat(List.of(first, second, otherKey)).allSatisfy(id -> assertThat(status(id)).isEqualTo(OutboxStatus.IN_PROGRESS));
+
+		// Пока claim свежий, события не забираются повторно, а новое событие ключа ждёт их публикации
+		UUID third = saveEvent(key);
+		assertThat(claimedIds()).doesNotContain(first, second, otherKey, third);
+
+		// Воркер «упал»: после claimTimeout события снова доступны, а ключ больше не заблокирован
+		Thread.sleep(CLAIM_TIMEOUT.toMillis() + 100);
+		assertThat(claimedIds()).contains(first, second, otherKey, third);
+		assertThat(claimedIds()).doesNotContain(first, second, otherKey, third);
+	}
+
+	@Test
+	void partialSendSplitsBatchIntoPublishedAndFailed() throws InterruptedException {
+		UUID publishedKey = UUID.randomUUID();
+		UUID published = saveEvent(publishedKey);
+		UUID failedKey = UUID.randomUUID();
+		UUID failed = saveEvent(failedKey);
+		UUID afterFailed = saveEvent(failedKey);
+		UUID unconfirmed = saveEvent(UUID.randomUUID());
+		this.sendResults.put(failed, () -> CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+		// Подтверждение не приходит до send-timeout
+		this.sendResults.put(unconfirmed, CompletableFuture::new);
+
+		this.outboxScheduler.processOutboxEvents();
+		awaitStatus(published, OutboxStatus.PUBLISHED);
+		awaitStatus(failed, OutboxStatus.FAILED);
+
+		// Следующее событие ключа не отправлялось после сбоя предыдущего и повторится вместе с ним
+		assertThat(this.sent).contains(published, failed, unconfirmed).doesNotContain(afterFailed);
+		assertThat(status(afterFailed)).isEqualTo(OutboxStatus.FAILED);
+		assertThat(status(unconfirmed)).isEqualTo(OutboxStatus.IN_PROGRESS);
+
+		// После claimTimeout повторно забираются упавшие и неподтверждённые события, но не опубликованные
+		Thread.sleep(CLAIM_TIMEOUT.toMillis() + 100);
+		List<UUID> reclaimed = claimedIds();
+		assertThat(reclaimed).contains(failed, afterFailed, unconfirmed).doesNotContain(published);
+		assertThat(reclaimed.indexOf(failed)).isLessThan(reclaimed.indexOf(afterFailed));
+	}
+
+	private UUID saveEvent(UUID messageKey) {
+		UUID aggregateId = UUID.randomUUID();
+		this.outboxService.saveEvent("Test", aggregateId, messageKey, "test-topic", "OutboxClaimTestEvent",
+				Map.of("aggregateId", aggregateId));
+		return aggregateId;
+	}
+
+	private List<UUID> claimedIds() {
+		return this.outboxService.claimEvents(BATCH_SIZE, CLAIM_TIMEOUT).stream()
+				.map(OutboxEvent::getAggregateId)
+				.toList();
+	}
+
+	private OutboxStatus status(UUID aggregateId) {
+		return this.outboxRepository.findAll().stream()
+				.filter(event -> event.getAggregateId().equals(aggregateId))
+				.map(OutboxEvent::getStatus)
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private void awaitStatus(UUID aggregateId, OutboxStatus expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (status(aggregateId) != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertThat(status(aggregateId)).isEqualTo(expected);
+	}
+
+}
\ No newline at end of file
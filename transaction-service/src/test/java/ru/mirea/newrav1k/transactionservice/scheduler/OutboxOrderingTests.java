@@ -0,0 +1,122 @@
+package ru.mirea.newrav1k.transactionservice.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.mirea.newrav1k.transactionservice.controller.kafka.producer.TransactionProducerHandler;
+import ru.mirea.newrav1k.transactionservice.model.entity.OutboxEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.OutboxStatus;
+import ru.mirea.newrav1k.transactionservice.repository.OutboxRepository;
+import ru.mirea.newrav1k.transactionservice.service.OutboxService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest(properties = {
+		"transaction-service.outbox.dispatch-mode=POLL",
+		"transaction-service.outbox.poll-interval=50",
+		"transaction-service.outbox.workers=4",
+		"transaction-service.outbox.batch-size=5",
+		"transaction-service.outbox.claim-timeout=1s"
+})
+class OutboxOrderingTests {
+
+	private static final int KEYS = 6;
+
+	private static final int EVENTS_PER_KEY = 20;
+
+	private static final long TIMEOUT_MILLIS = 60_000;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private OutboxRepository outboxRepository;
+
+	@MockitoBean
+	private TransactionProducerHandler producerHandler;
+
+	// Номер события внутри ключа по aggregateId
+	private final Map<UUID, Integer> sequences = new ConcurrentHashMap<>();
+
+	private final Map<String, Set<Integer>> sentByKey = new ConcurrentHashMap<>();
+
+	private final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	void setUp() {
+		given(this.producerHandler.send(any(OutboxEvent.class))).willAnswer(invocation -> {
+			OutboxEvent event = invocation.getArgument(0);
+			String key = event.getMessageKey();
+			int sequence = this.sequences.get(event.getAggregateId());
+			Set<Integer> sent = this.sentByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+			// К моменту отправки все предыдущие события ключа уже должны быть подтверждены
+			for (int previous = 0; previous < sequence; previous++) {
+				if (!sent.contains(previous)) {
+					this.violations.add("key " + key + ": event " + sequence + " sent before " + previous);
+				}
+			}
+			return CompletableFuture.supplyAsync(() -> {
+				sleep(ThreadLocalRandom.current().nextInt(1, 15));
+				if (ThreadLocalRandom.current().nextInt(5) == 0) {
+					throw new IllegalStateException("broker unavailable");
+				}
+				sent.add(sequence);
+				return null;
+			});
+		});
+	}
+
+	@Test
+	void eventsOfOneKeyArePublishedInOrderAcrossWorkers() throws InterruptedException {
+		List<UUID> aggregateIds = new ArrayList<>();
+		for (int sequence = 0; sequence < EVENTS_PER_KEY; sequence++) {
+			for (int key = 0; key < KEYS; key++) {
+				UUID aggregateId = UUID.randomUUID();
+				this.sequences.put(aggregateId, sequence);
+				aggregateIds.add(aggregateId);
+				this.outboxService.saveEvent("Test", aggregateId, new UUID(0, key), "test-topic",
+						"OutboxOrderingTestEvent", Map.of("sequence", sequence));
+			}
+		}
+
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!allPublished(aggregateIds) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+
+		assertThat(allPublished(aggregateIds)).isTrue();
+		assertThat(this.violations).isEmpty();
+		assertThat(this.sentByKey).hasSize(KEYS)
+				.allSatisfy((key, sent) -> assertThat(sent).hasSize(EVENTS_PER_KEY));
+	}
+
+	private boolean allPublished(List<UUID> aggregateIds) {
+		return this.outboxRepository.findAll().stream()
+				.filter(event -> aggregateIds.contains(event.getAggregateId()))
+				.filter(event -> event.getStatus() == OutboxStatus.PUBLISHED)
+				.count() == aggregateIds.size();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
\ No newline at end of file
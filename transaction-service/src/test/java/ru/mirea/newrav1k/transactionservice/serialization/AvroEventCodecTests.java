@@ -0,0 +1,215 @@
+package ru.mirea.newrav1k.transactionservice.serialization;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import ru.mirea.newrav1k.transactionservice.event.EventTypes;
+import ru.mirea.newrav1k.transactionservice.event.TransactionAcceptedEvent;
+import ru.mirea.newrav1k.transactionservice.model.enums.EventEncoding;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvroEventCodecTests {
+
+	private static final String SCHEMAS = "classpath:schemas/";
+
+	private static final String TOPIC = "test-topic";
+
+	private static final String ACCEPTED = "TransactionAcceptedEvent";
+
+	// v2 добавляет поле со значением по умолчанию, которого нет в записи v1
+	private static final String ACCEPTED_V2 = """
+			{
+			  "type": "record",
+			  "name": "TransactionAcceptedEvent",
+			  "namespace": "ru.mirea.newrav1k.transactionservice.event",
+			  "fields": [
+			    {"name": "eventId", "type": {"type": "fixed", "name": "Uuid", "size": 16}},
+			    {"name": "transactionId", "type": "Uuid"},
+			    {"name": "trackerId", "type": "Uuid"},
+			    {"name": "accountId", "type": "Uuid"},
+			    {"name": "type", "type": "string"},
+			    {"name": "amount", "type": {"type": "bytes", "logicalType": "decimal", "precision": 20, "scale": 2}},
+			    {"name": "channel", "type": "string", "default": "unknown"}
+			  ]
+			}
+			""";
+
+	@Test
+	void everyRegisteredEventSurvivesRoundTrip() throws Exception {
+		LocalSchemaRegistry registry = registry(SCHEMAS, Map.of());
+		AvroEventCodec codec = new AvroEventCodec(registry);
+
+		assertThat(EventTypes.KAFKA_EVENT_TYPES.keySet()).allSatisfy(eventType ->
+				assertThat(codec.supports(eventType)).as("schema for %s", eventType).isTrue());
+		for (Class<?> type : EventTypes.KAFKA_EVENT_TYPES.values()) {
+			Object event = sampleEvent(type, registry.latest(type.getSimpleName()));
+			Headers headers = new RecordHeaders();
+
+			byte[] data = codec.encode(type.getSimpleName(), event, headers);
+
+			assertThat(AvroEventCodec.isAvro(headers)).isTrue();
+			assertThat(codec.decode(type, data, AvroEventCodec.schemaVersion(headers))).isEqualTo(event);
+		}
+	}
+
+	@Test
+	void eventWrittenWithV1IsReadWithV2Schema(@TempDir Path schemaDirectory) throws Exception {
+		Path location = schemasWithAcceptedV2(schemaDirectory);
+		AvroEventCodec writer = new AvroEventCodec(registry(SCHEMAS, Map.of()));
+		AvroEventCodec reader = new AvroEventCodec(registry(location.toUri().toString(), Map.of()));
+		TransactionAcceptedEvent event = acceptedEvent();
+		Headers headers = new RecordHeaders();
+
+		byte[] data = writer.encode(ACCEPTED, event, headers);
+
+		assertThat(AvroEventCodec.schemaVersion(headers)).isEqualTo(1);
+		assertThat(reader.decode(TransactionAcceptedEvent.class, data, 1)).isEqualTo(event);
+	}
+
+	@Test
+	void pinnedVersionIsUsedForWriting(@TempDir Path schemaDirectory) throws Exception {
+		String location = schemasWithAcceptedV2(schemaDirectory).toUri().toString();
+		LocalSchemaRegistry pinned = registry(location, Map.of(ACCEPTED, 1));
+		AvroEventCodec codec = new AvroEventCodec(pinned);
+		TransactionAcceptedEvent event = acceptedEvent();
+		Headers headers = new RecordHeaders();
+
+		byte[] data = codec.encode(ACCEPTED, event, headers);
+
+		assertThat(registry(location, Map.of()).writeVersion(ACCEPTED)).isEqualTo(2);
+		assertThat(pinned.writeVersion(ACCEPTED)).isEqualTo(1);
+		assertThat(AvroEventCodec.schemaVersion(headers)).isEqualTo(1);
+		assertThat(codec.decode(TransactionAcceptedEvent.class, data, 1)).isEqualTo(event);
+	}
+
+	@Test
+	void pinningUnknownVersionFailsOnStartup() {
+		assertThatThrownBy(() -> registry(SCHEMAS, Map.of(ACCEPTED, 7)))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("Unknown schema version 7");
+	}
+
+	@Test
+	void unknownSchemaVersionIsRejected() throws Exception {
+		AvroEventCodec codec = new AvroEventCodec(registry(SCHEMAS, Map.of()));
+		byte[] data = codec.encode(ACCEPTED, acceptedEvent(), new RecordHeaders());
+
+		assertThatThrownBy(() -> codec.decode(TransactionAcceptedEvent.class, data, 99))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("Unknown schema version 99");
+	}
+
+	@Test
+	void missingSchemaVersionHeaderIsRejected() throws Exception {
+		AvroEventCodec codec = new AvroEventCodec(registry(SCHEMAS, Map.of()));
+		Headers headers = new RecordHeaders();
+		byte[] data = new EventSerializer(codec, EventEncoding.AVRO).serialize(TOPIC, headers, acceptedEvent());
+		headers.remove(AvroEventCodec.SCHEMA_VERSION_HEADER);
+
+		assertThatThrownBy(() -> new EventDeserializer(codec).deserialize(TOPIC, headers, data))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining(AvroEventCodec.SCHEMA_VERSION_HEADER);
+	}
+
+	@Test
+	void serializerAndDeserializerRoundTripThroughHeaders() throws Exception {
+		AvroEventCodec codec = new AvroEventCodec(registry(SCHEMAS, Map.of()));
+		TransactionAcceptedEvent event = acceptedEvent();
+		Headers headers = new RecordHeaders();
+		// Заголовки исходной записи, пришедшей из DLT, должны быть заменены
+		headers.add(AvroEventCodec.SCHEMA_VERSION_HEADER, "42".getBytes(StandardCharsets.UTF_8));
+
+		byte[] data = new EventSerializer(codec, EventEncoding.AVRO).serialize(TOPIC, headers, event);
+
+		assertThat(headers.headers(AvroEventCodec.SCHEMA_VERSION_HEADER)).hasSize(1);
+		assertThat(AvroEventCodec.schemaVersion(headers)).isEqualTo(1);
+		assertThat(new EventDeserializer(codec).deserialize(TOPIC, headers, data)).isEqualTo(event);
+	}
+
+	@Test
+	void jsonEncodingDropsStaleAvroHeaders() throws Exception {
+		AvroEventCodec codec = new AvroEventCodec(registry(SCHEMAS, Map.of()));
+		TransactionAcceptedEvent event = acceptedEvent();
+		Headers headers = new RecordHeaders();
+		byte[] avro = new EventSerializer(codec, EventEncoding.AVRO).serialize(TOPIC, headers, event);
+
+		byte[] json = new EventSerializer(codec, EventEncoding.JSON).serialize(TOPIC, headers, event);
+
+		assertThat(AvroEventCodec.isAvro(headers)).isFalse();
+		assertThat(json.length).isGreaterThan(avro.length);
+		EventDeserializer deserializer = new EventDeserializer(codec);
+		deserializer.configure(Map.of(
+				JsonDeserializer.TRUSTED_PACKAGES, "*",
+				JsonDeserializer.TYPE_MAPPINGS, EventTypes.toTypeMappings()), false);
+		assertThat(deserializer.deserialize(TOPIC, headers, json)).isEqualTo(event);
+	}
+
+	private static LocalSchemaRegistry registry(String location, Map<String, Integer> pinnedVersions) throws IOException {
+		return new LocalSchemaRegistry(new PathMatchingResourcePatternResolver(), location, pinnedVersions);
+	}
+
+	private static Path schemasWithAcceptedV2(Path directory) throws IOException {
+		Path accepted = Files.createDirectories(directory.resolve(ACCEPTED));
+		try (InputStream v1 = AvroEventCodecTests.class.getResourceAsStream("/schemas/" + ACCEPTED + "/v1.avsc")) {
+			Files.copy(v1, accepted.resolve("v1.avsc"));
+		}
+		Files.writeString(accepted.resolve("v2.avsc"), ACCEPTED_V2);
+		return directory;
+	}
+
+	private static TransactionAcceptedEvent acceptedEvent() {
+		return new TransactionAcceptedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+				TransactionType.EXPENSE, new BigDecimal("1234.50"));
+	}
+
+	// Значения строятся по схеме: у сумм тот же масштаб, что у decimal, иначе equals после декодирования не совпадёт
+	private static Object sampleEvent(Class<?> type, Schema schema) throws ReflectiveOperationException {
+		RecordComponent[] components = type.getRecordComponents();
+		Object[] arguments = new Object[components.length];
+		Class<?>[] parameterTypes = new Class<?>[components.length];
+		for (int i = 0; i < components.length; i++) {
+			parameterTypes[i] = components[i].getType();
+			arguments[i] = sampleValue(components[i].getType(), schema.getField(components[i].getName()).schema());
+		}
+		return type.getDeclaredConstructor(parameterTypes).newInstance(arguments);
+	}
+
+	private static Object sampleValue(Class<?> type, Schema schema) {
+		if (type == UUID.class) {
+			return UUID.randomUUID();
+		}
+		if (type == BigDecimal.class) {
+			Schema decimal = schema.getType() == Schema.Type.UNION
+					? schema.getTypes().stream().filter(branch -> branch.getType() != Schema.Type.NULL).findFirst().orElseThrow()
+					: schema;
+			return new BigDecimal("987.65").setScale(((LogicalTypes.Decimal) decimal.getLogicalType()).getScale());
+		}
+		if (type.isEnum()) {
+			return type.getEnumConstants()[0];
+		}
+		if (type == String.class) {
+			return "sample";
+		}
+		throw new IllegalArgumentException("No sample value for " + type);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.mirea.newrav1k.core.dedup.ProcessedEventStore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Синхронизация по расписанию отключена: тесты вызывают synchronize и maintain сами
+@SpringBootTest(properties = "transaction-service.processed-events.sync-interval=3600000")
+class ProcessedEventStoreTests {
+
+	private static final String TABLE = "transaction_management.t_processed_events";
+
+	@Autowired
+	private ProcessedEventStore processedEventStore;
+
+	@Autowired
+	private ProcessedEventService processedEventService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void markAllProcessedInsertsOnlyNewEvents() {
+		UUID alreadyMarked = UUID.randomUUID();
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		assertThat(this.processedEventStore.markProcessed(alreadyMarked)).isTrue();
+
+		int inserted = this.processedEventStore.markAllProcessed(List.of(alreadyMarked, first, first, second));
+
+		assertThat(inserted).isEqualTo(2);
+		assertThat(this.processedEventStore.markAllProcessed(List.of(first, second))).isZero();
+		assertThat(this.processedEventStore.markAllProcessed(List.of())).isZero();
+		assertThat(this.processedEventStore.findProcessed(List.of(alreadyMarked, first, second, UUID.randomUUID())))
+				.containsExactlyInAnyOrder(alreadyMarked, first, second);
+	}
+
+	@Test
+	void markInEarlierPartitionBlocksRepeatedMark() {
+		UUID eventId = UUID.randomUUID();
+		// Отметка прошлых суток лежит в другой секции, и уникальность (event_id, bucket) её не видит
+		this.jdbcTemplate.update("insert into " + TABLE + " (event_id, bucket, processed_at)"
+				+ " values (?, current_date - 1, now() - interval '1 day')", eventId);
+
+		assertThat(this.processedEventStore.markProcessed(eventId)).isFalse();
+		assertThat(this.processedEventStore.markAllProcessed(List.of(eventId))).isZero();
+	}
+
+	@Test
+	void expiredPartitionIsDroppedAndFilterRebuilt() {
+		LocalDate expiredDay = createExpiredPartition();
+		UUID expiredEventId = UUID.randomUUID();
+		this.jdbcTemplate.update("insert into " + TABLE + " (event_id, bucket, processed_at) values (?, ?, now())",
+				expiredEventId, expiredDay);
+		UUID currentEventId = UUID.randomUUID();
+		assertThat(this.processedEventStore.markProcessed(currentEventId)).isTrue();
+
+		this.processedEventStore.maintain();
+
+		assertThat(partitionExists(expiredDay)).isFalse();
+		assertThat(this.processedEventStore.isProcessed(currentEventId)).isTrue();
+		// Отметка удалённой секции истекла, и событие снова можно обработать
+		assertThat(this.processedEventStore.markProcessed(expiredEventId)).isTrue();
+	}
+
+	@Test
+	void eventsMarkedElsewhereDuringRebuildAreNotLost() throws Exception {
+		List<UUID> foreignEventIds = Collections.synchronizedList(new ArrayList<>());
+		AtomicBoolean writing = new AtomicBoolean(true);
+		// Строки, вставленные мимо хранилища, имитируют отметки другого экземпляра: их нет в LRU этого экземпляра
+		CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+			while (writing.get()) {
+				UUID eventId = UUID.randomUUID();
+				this.jdbcTemplate.update("insert into " + TABLE + " (event_id, bucket, processed_at)"
+						+ " values (?, current_date, now())", eventId);
+				foreignEventIds.add(eventId);
+			}
+		});
+
+		for (int i = 0; i < 3; i++) {
+			createExpiredPartition();
+			this.processedEventStore.maintain();
+			this.processedEventStore.synchronize();
+		}
+		writing.set(false);
+		writer.get(30, TimeUnit.SECONDS);
+		this.processedEventStore.synchronize();
+
+		assertThat(foreignEventIds).isNotEmpty();
+		assertThat(foreignEventIds).allSatisfy(eventId ->
+				assertThat(this.processedEventStore.isProcessed(eventId)).as("event %s", eventId).isTrue());
+	}
+
+	@Test
+	void concurrentDeliveriesAreProcessedOnce() throws Exception {
+		UUID eventId = UUID.randomUUID();
+		AtomicInteger processings = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<CompletableFuture<Boolean>> deliveries = IntStream.range(0, 4)
+				.mapToObj(index -> CompletableFuture.supplyAsync(() -> {
+					await(start);
+					return this.processedEventService.processOnce(eventId, () -> {
+						processings.incrementAndGet();
+						sleep(200);
+					});
+				}))
+				.toList();
+		start.countDown();
+		CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+		assertThat(processings).hasValue(1);
+		assertThat(deliveries).filteredOn(CompletableFuture::join).hasSize(1);
+	}
+
+	@Test
+	void failedProcessingReleasesMark() {
+		UUID eventId = UUID.randomUUID();
+
+		assertThatThrownBy(() -> this.processedEventService.processOnce(eventId, () -> {
+			throw new IllegalStateException("Processing failed");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(this.processedEventStore.isProcessed(eventId)).isFalse();
+		assertThat(this.processedEventService.processOnce(eventId, () -> {
+		})).isTrue();
+		assertThat(this.processedEventService.processOnce(eventId, () -> {
+		})).isFalse();
+	}
+
+	private LocalDate createExpiredPartition() {
+		LocalDate day = LocalDate.of(2000, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(3_000));
+		this.jdbcTemplate.execute("create table if not exists " + TABLE + "_d" + day.toString().replace("-", "")
+				+ " partition of " + TABLE + " for values from ('" + day + "') to ('" + day.plusDays(1) + "')");
+		return day;
+	}
+
+	private boolean partitionExists(LocalDate day) {
+		Set<String> partitions = Set.copyOf(this.jdbcTemplate.queryForList("""
+				select c.relname
+				from pg_inherits i
+				join pg_class c on c.oid = i.inhrelid
+				where i.inhparent = ?::regclass
+				""", String.class, TABLE));
+		return partitions.contains("t_processed_events_d" + day.toString().replace("-", ""));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(exception);
+		}
+	}
+
+}
\ No newline at end of file
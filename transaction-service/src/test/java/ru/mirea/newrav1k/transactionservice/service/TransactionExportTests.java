@@ -0,0 +1,149 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
+import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.enums.ExportFormat;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Экспорт строит SQL сам, а список - через buildTransactionSpecification; при одном фильтре наборы строк должны совпадать
+@SpringBootTest
+class TransactionExportTests {
+
+	private static final int DAYS = 10;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionExportService transactionExportService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private UUID trackerId;
+
+	private Instant base;
+
+	@BeforeEach
+	void setUp() {
+		this.trackerId = UUID.randomUUID();
+		this.base = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(DAYS, ChronoUnit.DAYS);
+		List<Transaction> transactions = new ArrayList<>();
+		for (int day = 0; day < DAYS; day++) {
+			transactions.add(buildTransaction(day % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE, day));
+		}
+		List<Transaction> saved = this.transactionRepository.saveAll(transactions);
+		// createdAt выставляется Hibernate при вставке, поэтому дни истории задаются отдельным UPDATE
+		for (int day = 0; day < saved.size(); day++) {
+			this.jdbcTemplate.update("update transaction_management.t_transactions set created_at = ? where id = ?",
+					Timestamp.from(dayStart(day)), saved.get(day).getId());
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionFilter filter = new TransactionFilter(this.trackerId, null, null, null);
+		this.transactionRepository.deleteAll(
+				this.transactionRepository.findAll(this.transactionRepository.buildTransactionSpecification(filter)));
+	}
+
+	@Test
+	@WithMockUser
+	void exportReturnsSameRowsAsListForEveryFilter() throws Exception {
+		// Границы совпадают с created_at строк: так видно расхождение между between, > и <
+		List<TransactionFilter> filters = List.of(
+				new TransactionFilter(null, null, null, null),
+				new TransactionFilter(null, "INCOME", null, null),
+				new TransactionFilter(null, "EXP", null, null),
+				new TransactionFilter(null, null, dayStart(3), dayStart(6)),
+				new TransactionFilter(null, null, dayStart(3), null),
+				new TransactionFilter(null, null, null, dayStart(6)),
+				new TransactionFilter(null, "INCOME", dayStart(2), dayStart(8)),
+				new TransactionFilter(UUID.randomUUID(), null, null, null)
+		);
+
+		for (TransactionFilter filter : filters) {
+			Map<UUID, TransactionResponse> listed = list(filter);
+			Map<UUID, TransactionResponse> exported = export(filter);
+
+			assertThat(exported.keySet()).as("rows for %s", filter).isEqualTo(listed.keySet());
+			exported.forEach((id, transaction) -> {
+				TransactionResponse expected = listed.get(id);
+				assertThat(transaction.amount()).isEqualByComparingTo(expected.amount());
+				assertThat(transaction.createdAt()).isEqualTo(expected.createdAt());
+				assertThat(transaction.tags()).containsExactlyInAnyOrderElementsOf(expected.tags());
+			});
+		}
+		assertThat(export(new TransactionFilter(null, null, dayStart(3), dayStart(6)))).hasSize(4);
+		assertThat(export(new TransactionFilter(null, null, dayStart(3), null))).hasSize(DAYS - 4);
+	}
+
+	private Map<UUID, TransactionResponse> list(TransactionFilter filter) {
+		return this.transactionService.findAllByTrackerId(this.trackerId, filter, PageRequest.of(0, 1000)).stream()
+				.collect(Collectors.toMap(TransactionResponse::id, Function.identity()));
+	}
+
+	private Map<UUID, TransactionResponse> export(TransactionFilter filter) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		this.transactionExportService.export(this.trackerId, filter, ExportFormat.NDJSON, outputStream);
+		Map<UUID, TransactionResponse> rows = new HashMap<>();
+		for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+			if (!line.isBlank()) {
+				TransactionResponse transaction = this.objectMapper.readValue(line, TransactionResponse.class);
+				rows.put(transaction.id(), transaction);
+			}
+		}
+		return rows;
+	}
+
+	private Instant dayStart(int day) {
+		return this.base.plus(day, ChronoUnit.DAYS);
+	}
+
+	private Transaction buildTransaction(TransactionType type, int day) {
+		Transaction transaction = new Transaction();
+		transaction.setTrackerId(this.trackerId);
+		transaction.setAmount(BigDecimal.valueOf(day + 1).setScale(2));
+		transaction.setType(type);
+		transaction.setCategoryId(UUID.randomUUID());
+		transaction.setAccountId(UUID.randomUUID());
+		transaction.setTags(new ArrayList<>(List.of("day-" + day)));
+		transaction.setStatus(TransactionStatus.COMPLETED);
+		return transaction;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionRepository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// План строится для SQL, который Hibernate генерирует из buildTransactionSpecification, с теми же параметрами
+@SpringBootTest(properties = {
+		"transaction-service.partitioning.enabled=true",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "ru.mirea.newrav1k.transactionservice.service.TransactionPartitionPruningTests$RecordingStatementInspector"
+})
+class TransactionPartitionPruningTests {
+
+	private static final String TABLE = "transaction_management.t_transactions";
+
+	private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'t_transactions_y'yyyy'm'MM");
+
+	private static final Pattern PARAMETER = Pattern.compile(
+			"\\.(\\w+)(?:\\s*([=<>])\\s*\\?|\\s+between\\s+\\?\\s+and\\s+\\?)");
+
+	private static final int PAST_MONTHS = 6;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		// Прошлые секции нужны, чтобы отсечение было заметно по плану
+		YearMonth current = YearMonth.now(ZoneOffset.UTC);
+		for (int i = 1; i <= PAST_MONTHS; i++) {
+			YearMonth month = current.minusMonths(i);
+			this.jdbcTemplate.execute("create table if not exists transaction_management." + month.format(PARTITION_NAME)
+					+ " partition of " + TABLE
+					+ " for values from ('" + month.atDay(1) + " 00:00:00+00') to ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+		}
+	}
+
+	@Test
+	void lastThirtyDaysFilterScansAtMostTwoPartitions() throws Exception {
+		Instant to = Instant.now();
+		Instant from = to.minus(30, ChronoUnit.DAYS);
+
+		Set<String> relations = scannedRelations(new TransactionFilter(UUID.randomUUID(), null, from, to));
+
+		assertThat(relations).isNotEmpty()
+				.allSatisfy(relation -> assertThat(relation).matches("t_transactions_y\\d{4}m\\d{2}"));
+		assertThat(relations).hasSizeLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void createdAfterFilterSkipsOlderPartitions() throws Exception {
+		Instant from = Instant.now().minus(30, ChronoUnit.DAYS);
+		YearMonth fromMonth = YearMonth.from(from.atZone(ZoneOffset.UTC));
+
+		Set<String> relations = scannedRelations(new TransactionFilter(UUID.randomUUID(), null, from, null));
+
+		assertThat(relations).isNotEmpty();
+		assertThat(monthsOf(relations)).allSatisfy(month -> assertThat(month).isGreaterThanOrEqualTo(fromMonth));
+	}
+
+	@Test
+	void createdBeforeFilterSkipsNewerPartitions() throws Exception {
+		Instant to = Instant.now().minus(90, ChronoUnit.DAYS);
+		YearMonth toMonth = YearMonth.from(to.atZone(ZoneOffset.UTC));
+
+		Set<String> relations = scannedRelations(new TransactionFilter(UUID.randomUUID(), null, null, to));
+
+		assertThat(relations).isNotEmpty();
+		assertThat(monthsOf(relations)).allSatisfy(month -> assertThat(month).isLessThanOrEqualTo(toMonth));
+	}
+
+	private Set<String> scannedRelations(TransactionFilter filter) throws Exception {
+		String sql = RecordingStatementInspector.record(() ->
+				this.transactionRepository.findAll(this.transactionRepository.buildTransactionSpecification(filter)));
+		List<Object> parameters = bindParameters(sql, filter);
+
+		String plan = this.jdbcTemplate.query("explain (format json) " + sql, statement -> {
+			for (int i = 0; i < parameters.size(); i++) {
+				statement.setObject(i + 1, parameters.get(i));
+			}
+		}, resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+
+		Set<String> relations = new HashSet<>();
+		collectRelations(this.objectMapper.readTree(plan), relations);
+		return relations;
+	}
+
+	// Значения подставляются в порядке плейсхолдеров сгенерированного SQL
+	private static List<Object> bindParameters(String sql, TransactionFilter filter) {
+		List<Object> parameters = new ArrayList<>();
+		Matcher matcher = PARAMETER.matcher(sql);
+		while (matcher.find()) {
+			String column = matcher.group(1);
+			String operator = matcher.group(2);
+			if (column.equals("tracker_id")) {
+				parameters.add(filter.trackerId());
+			} else if (column.equals("created_at") && operator == null) {
+				parameters.add(toTimestamp(filter.createdAtFrom()));
+				parameters.add(toTimestamp(filter.createdAtTo()));
+			} else if (column.equals("created_at")) {
+				parameters.add(toTimestamp(operator.equals(">") ? filter.createdAtFrom() : filter.createdAtTo()));
+			}
+		}
+		assertThat(parameters).as("parameters of %s", sql).hasSize((int) sql.chars().filter(c -> c == '?').count());
+		return parameters;
+	}
+
+	private static OffsetDateTime toTimestamp(Instant instant) {
+		return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+	}
+
+	private static List<YearMonth> monthsOf(Set<String> relations) {
+		return relations.stream()
+				.filter(relation -> relation.matches("t_transactions_y\\d{4}m\\d{2}"))
+				.map(relation -> YearMonth.parse(relation, PARTITION_NAME))
+				.toList();
+	}
+
+	private static void collectRelations(JsonNode node, Set<String> relations) {
+		if (node.has("Relation Name")) {
+			relations.add(node.get("Relation Name").asText());
+		}
+		node.forEach(child -> collectRelations(child, relations));
+	}
+
+	// Запоминает первый запрос к t_transactions, выполненный в текущем потоке внутри record
+	public static class RecordingStatementInspector implements StatementInspector {
+
+		private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+		static String record(Runnable action) {
+			List<String> statements = new ArrayList<>();
+			STATEMENTS.set(statements);
+			try {
+				action.run();
+			} finally {
+				STATEMENTS.remove();
+			}
+			return statements.stream()
+					.filter(sql -> sql.contains(TABLE + " "))
+					.findFirst()
+					.orElseThrow(() -> new AssertionError("No query to " + TABLE + " was executed"));
+		}
+
+		@Override
+		public String inspect(String sql) {
+			List<String> statements = STATEMENTS.get();
+			if (statements != null) {
+				statements.add(sql);
+			}
+			return sql;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionCreateRequest;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionSummaryResponse;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionUpdateRequest;
+import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionRepository;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionSummaryRepository;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Сводка после каждого шага сверяется с суммой COMPLETED-транзакций трекера, посчитанной заново
+@SpringBootTest
+class TransactionSummaryTests {
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionSummaryService transactionSummaryService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TransactionSummaryRepository transactionSummaryRepository;
+
+	private UUID trackerId;
+
+	private UUID categoryId;
+
+	@BeforeEach
+	void setUp() {
+		this.trackerId = UUID.randomUUID();
+		this.categoryId = UUID.randomUUID();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionFilter filter = new TransactionFilter(this.trackerId, null, null, null);
+		this.transactionRepository.deleteAll(
+				this.transactionRepository.findAll(this.transactionRepository.buildTransactionSpecification(filter)));
+		this.transactionSummaryRepository.deleteAll(this.transactionSummaryRepository
+				.findAllByTrackerIdAndMonthBetweenOrderByMonthAscCategoryIdAsc(this.trackerId,
+						currentMonth().atDay(1), currentMonth().atDay(1)));
+	}
+
+	@Test
+	@WithMockUser
+	void summaryFollowsCreateStatusChangeAmountUpdateAndDelete() {
+		UUID income = accept(TransactionType.INCOME, "100.00");
+		UUID expense = accept(TransactionType.EXPENSE, "40.00");
+		accept(TransactionType.EXPENSE, "10.00");
+		// Пока транзакции не завершены, в сводку они не попадают
+		assertSummary("0", "0");
+
+		this.transactionService.updateTransactionStatus(income, TransactionStatus.COMPLETED);
+		this.transactionService.updateTransactionStatus(expense, TransactionStatus.COMPLETED);
+		assertSummary("100.00", "40.00");
+
+		// Повторная установка того же статуса не должна учитывать транзакцию дважды
+		this.transactionService.updateTransactionStatus(expense, TransactionStatus.COMPLETED);
+		assertSummary("100.00", "40.00");
+
+		this.transactionService.updateById(this.trackerId, expense, new TransactionUpdateRequest(new BigDecimal("55.50"), null));
+		assertSummary("100.00", "55.50");
+
+		this.transactionService.updateTransactionStatus(income, TransactionStatus.CANCELLED);
+		assertSummary("0", "55.50");
+
+		this.transactionService.deleteById(this.trackerId, expense);
+		assertSummary("0", "0");
+	}
+
+	@Test
+	@WithMockUser
+	void amountUpdateOfPendingTransactionDoesNotTouchSummary() {
+		UUID expense = accept(TransactionType.EXPENSE, "40.00");
+
+		this.transactionService.updateById(this.trackerId, expense, new TransactionUpdateRequest(new BigDecimal("70.00"), null));
+		this.transactionService.updateTransactionStatus(expense, TransactionStatus.COMPLETED);
+
+		assertSummary("0", "70.00");
+	}
+
+	private UUID accept(TransactionType type, String amount) {
+		return this.transactionService.accept(this.trackerId, new TransactionCreateRequest(
+				new BigDecimal(amount), type, this.categoryId, UUID.randomUUID(), null, List.of())).id();
+	}
+
+	private void assertSummary(String expectedIncome, String expectedExpense) {
+		YearMonth month = currentMonth();
+		List<TransactionSummaryResponse> summary =
+				this.transactionSummaryService.findAllByTrackerId(this.trackerId, month, month);
+		BigDecimal income = summary.stream().map(TransactionSummaryResponse::income).reduce(BigDecimal.ZERO, BigDecimal::add);
+		BigDecimal expense = summary.stream().map(TransactionSummaryResponse::expense).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+		assertThat(summary).allSatisfy(row -> {
+			assertThat(row.categoryId()).isEqualTo(this.categoryId);
+			assertThat(row.month()).isEqualTo(month.atDay(1));
+		});
+		assertThat(income).isEqualByComparingTo(expectedIncome).isEqualByComparingTo(completedSum(TransactionType.INCOME));
+		assertThat(expense).isEqualByComparingTo(expectedExpense).isEqualByComparingTo(completedSum(TransactionType.EXPENSE));
+	}
+
+	private BigDecimal completedSum(TransactionType type) {
+		TransactionFilter filter = new TransactionFilter(this.trackerId, null, null, null);
+		return this.transactionRepository.findAll(this.transactionRepository.buildTransactionSpecification(filter)).stream()
+				.filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED && transaction.getType() == type)
+				.map(Transaction::getAmount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	private static YearMonth currentMonth() {
+		return YearMonth.now(ZoneOffset.UTC);
+	}
+
+}
\ No newline at end of file
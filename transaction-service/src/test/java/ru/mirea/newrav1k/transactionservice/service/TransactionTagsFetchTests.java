@@ -0,0 +1,88 @@
+package ru.mirea.newrav1k.transactionservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionFilter;
+import ru.mirea.newrav1k.transactionservice.model.dto.TransactionResponse;
+import ru.mirea.newrav1k.transactionservice.model.entity.Transaction;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionStatus;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+import ru.mirea.newrav1k.transactionservice.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionTagsFetchTests {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private UUID trackerId;
+
+	@BeforeEach
+	void setUp() {
+		this.trackerId = UUID.randomUUID();
+		List<Transaction> transactions = IntStream.range(0, PAGE_SIZE)
+				.mapToObj(index -> buildTransaction(this.trackerId, index))
+				.toList();
+		this.transactionRepository.saveAll(transactions);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionFilter filter = new TransactionFilter(this.trackerId, null, null, null);
+		this.transactionRepository.deleteAll(
+				this.transactionRepository.findAll(this.transactionRepository.buildTransactionSpecification(filter)));
+	}
+
+	@Test
+	@WithMockUser
+	void findAllByTrackerIdLoadsTagsOfWholePageInOneQuery() {
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Page<TransactionResponse> page = this.transactionService.findAllByTrackerId(
+				this.trackerId, new TransactionFilter(null, null, null, null), PageRequest.of(0, PAGE_SIZE));
+
+		assertThat(page.getContent()).hasSize(PAGE_SIZE)
+				.allSatisfy(transaction -> assertThat(transaction.tags()).hasSize(2));
+		// выборка страницы + count + одна пакетная выборка тегов
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+
+	private static Transaction buildTransaction(UUID trackerId, int index) {
+		Transaction transaction = new Transaction();
+		transaction.setTrackerId(trackerId);
+		transaction.setAmount(BigDecimal.valueOf(index + 1));
+		transaction.setType(TransactionType.EXPENSE);
+		transaction.setCategoryId(UUID.randomUUID());
+		transaction.setAccountId(UUID.randomUUID());
+		transaction.setTags(new ArrayList<>(List.of("tag-" + index, "import")));
+		transaction.setStatus(TransactionStatus.COMPLETED);
+		return transaction;
+	}
+
+}
@@ -0,0 +1,119 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import org.junit.jupiter.api.Test;
+import ru.mirea.newrav1k.transactionservice.exception.TransactionImportException;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvStatementParserTests {
+
+	private static final UUID DEFAULT_ACCOUNT_ID = UUID.randomUUID();
+
+	private static final UUID DEFAULT_CATEGORY_ID = UUID.randomUUID();
+
+	private final CsvStatementParser parser = new CsvStatementParser();
+
+	@Test
+	void signOfAmountDefinesTypeWhenTypeColumnIsEmpty() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				date,amount,type
+				2024-01-15,-12.50,
+				2024-01-16,100,
+				""");
+
+		assertThat(handler.rows).hasSize(2);
+		assertThat(handler.rows.get(0).request().type()).isEqualTo(TransactionType.EXPENSE);
+		assertThat(handler.rows.get(0).request().amount()).isEqualByComparingTo(new BigDecimal("12.50"));
+		assertThat(handler.rows.get(0).postedAt()).isEqualTo(Instant.parse("2024-01-15T00:00:00Z"));
+		assertThat(handler.rows.get(1).request().type()).isEqualTo(TransactionType.INCOME);
+	}
+
+	@Test
+	void missingAccountAndCategoryFallBackToDefaults() throws IOException {
+		RecordingStatementRowHandler handler = parse("amount\n10\n");
+
+		assertThat(handler.rows).singleElement().satisfies(row -> {
+			assertThat(row.request().accountId()).isEqualTo(DEFAULT_ACCOUNT_ID);
+			assertThat(row.request().categoryId()).isEqualTo(DEFAULT_CATEGORY_ID);
+			assertThat(row.postedAt()).isNull();
+		});
+	}
+
+	@Test
+	void quotedValuesKeepCommasQuotesAndLineBreaks() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				amount,description,tags
+				10,"Coffee, ""Latte""
+				to go","food; morning ;"
+				20,Tea,
+				""");
+
+		assertThat(handler.rows).hasSize(2);
+		assertThat(handler.rows.get(0).request().description()).isEqualTo("Coffee, \"Latte\"\nto go");
+		assertThat(handler.rows.get(0).request().tags()).containsExactly("food", "morning");
+		// Номер строки второй записи учитывает перенос внутри кавычек
+		assertThat(handler.rows.get(1).line()).isEqualTo(4);
+	}
+
+	@Test
+	void malformedRowsAreReportedAndDoNotStopImport() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				date,amount,type,accountId
+				2024-01-15,abc,,
+				2024-01-15,10,TRANSFER,
+				2024-13-45,10,,
+				2024-01-15,10,,not-a-uuid
+				2024-01-15,,,
+				2024-01-15T10:00:00Z,10,income,
+				""");
+
+		assertThat(handler.malformedLines).containsExactly(2L, 3L, 4L, 5L, 6L);
+		assertThat(handler.rows).singleElement().satisfies(row -> {
+			assertThat(row.line()).isEqualTo(7);
+			assertThat(row.request().type()).isEqualTo(TransactionType.INCOME);
+			assertThat(row.postedAt()).isEqualTo(Instant.parse("2024-01-15T10:00:00Z"));
+		});
+	}
+
+	@Test
+	void blankLinesAndCrLfAreSkipped() throws IOException {
+		RecordingStatementRowHandler handler = parse("amount\r\n10\r\n\r\n20\r\n");
+
+		assertThat(handler.rows).extracting(row -> row.request().amount())
+				.containsExactly(new BigDecimal("10"), new BigDecimal("20"));
+		assertThat(handler.malformedLines).isEmpty();
+	}
+
+	@Test
+	void shorterRowThanHeaderUsesDefaults() throws IOException {
+		RecordingStatementRowHandler handler = parse("amount,description,tags\n10\n");
+
+		assertThat(handler.rows).singleElement().satisfies(row -> {
+			assertThat(row.request().description()).isNull();
+			assertThat(row.request().tags()).isEqualTo(List.of());
+		});
+	}
+
+	@Test
+	void statementWithoutHeaderOrAmountColumnIsRejected() {
+		assertThatThrownBy(() -> parse("")).isInstanceOf(TransactionImportException.class);
+		assertThatThrownBy(() -> parse("date,description\n2024-01-15,Coffee\n"))
+				.isInstanceOf(TransactionImportException.class);
+	}
+
+	private RecordingStatementRowHandler parse(String content) throws IOException {
+		RecordingStatementRowHandler handler = new RecordingStatementRowHandler();
+		this.parser.parse(new StringReader(content), DEFAULT_ACCOUNT_ID, DEFAULT_CATEGORY_ID, handler);
+		return handler;
+	}
+
+}
\ No newline at end of file
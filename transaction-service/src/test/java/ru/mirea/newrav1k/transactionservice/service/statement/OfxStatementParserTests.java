@@ -0,0 +1,112 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import org.junit.jupiter.api.Test;
+import ru.mirea.newrav1k.transactionservice.model.enums.TransactionType;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfxStatementParserTests {
+
+	private static final UUID DEFAULT_ACCOUNT_ID = UUID.randomUUID();
+
+	private static final UUID DEFAULT_CATEGORY_ID = UUID.randomUUID();
+
+	private final OfxStatementParser parser = new OfxStatementParser();
+
+	@Test
+	void sgmlTransactionsWithoutClosingLeafTagsAreParsed() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				OFXHEADER:100
+				<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+				<STMTTRN>
+				<TRNTYPE>DEBIT
+				<DTPOSTED>20240115103000
+				<TRNAMT>-12,50
+				<NAME>Coffee
+				<MEMO>Latte
+				</STMTTRN>
+				<stmttrn>
+				<trnamt>100.00
+				<dtposted>20240116
+				<memo>Salary
+				</stmttrn>
+				</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+				""");
+
+		assertThat(handler.malformedLines).isEmpty();
+		assertThat(handler.rows).hasSize(2);
+		StatementRow expense = handler.rows.get(0);
+		assertThat(expense.line()).isEqualTo(1);
+		assertThat(expense.request().type()).isEqualTo(TransactionType.EXPENSE);
+		assertThat(expense.request().amount()).isEqualByComparingTo(new BigDecimal("12.50"));
+		assertThat(expense.request().description()).isEqualTo("Coffee Latte");
+		assertThat(expense.request().accountId()).isEqualTo(DEFAULT_ACCOUNT_ID);
+		assertThat(expense.request().categoryId()).isEqualTo(DEFAULT_CATEGORY_ID);
+		assertThat(expense.postedAt()).isEqualTo(Instant.parse("2024-01-15T10:30:00Z"));
+		StatementRow income = handler.rows.get(1);
+		assertThat(income.request().type()).isEqualTo(TransactionType.INCOME);
+		assertThat(income.request().description()).isEqualTo("Salary");
+		assertThat(income.postedAt()).isEqualTo(Instant.parse("2024-01-16T00:00:00Z"));
+	}
+
+	@Test
+	void timeZoneOffsetOfPostedDateIsApplied() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240115120000.000[+3:MSK]</STMTTRN>
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240115120000[-5.5]</STMTTRN>
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240115[3]</STMTTRN>
+				""");
+
+		assertThat(handler.malformedLines).isEmpty();
+		assertThat(handler.rows).extracting(StatementRow::postedAt).containsExactly(
+				Instant.parse("2024-01-15T09:00:00Z"),
+				Instant.parse("2024-01-15T17:30:00Z"),
+				Instant.parse("2024-01-14T21:00:00Z"));
+	}
+
+	@Test
+	void malformedTransactionsAreReportedAndDoNotStopImport() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240101[3</STMTTRN>
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240101[</STMTTRN>
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240101[abc]</STMTTRN>
+				<STMTTRN><TRNAMT>1<DTPOSTED>20241345</STMTTRN>
+				<STMTTRN><TRNAMT>1<DTPOSTED>20240101[99]</STMTTRN>
+				<STMTTRN><TRNAMT>abc</STMTTRN>
+				<STMTTRN><NAME>No amount</STMTTRN>
+				<STMTTRN><TRNAMT>5<DTPOSTED>2024</STMTTRN>
+				""");
+
+		assertThat(handler.malformedLines).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+		assertThat(handler.rows).singleElement().satisfies(row -> {
+			assertThat(row.line()).isEqualTo(8);
+			assertThat(row.postedAt()).isNull();
+		});
+	}
+
+	@Test
+	void tagsOutsideTransactionsAreIgnored() throws IOException {
+		RecordingStatementRowHandler handler = parse("""
+				<OFX><TRNAMT>100<NAME>Balance</STMTTRN>
+				garbage without tags
+				<STMTTRN><TRNAMT>7</STMTTRN>
+				""");
+
+		assertThat(handler.malformedLines).isEmpty();
+		assertThat(handler.rows).singleElement()
+				.satisfies(row -> assertThat(row.request().amount()).isEqualByComparingTo(new BigDecimal("7")));
+	}
+
+	private RecordingStatementRowHandler parse(String content) throws IOException {
+		RecordingStatementRowHandler handler = new RecordingStatementRowHandler();
+		this.parser.parse(new StringReader(content), DEFAULT_ACCOUNT_ID, DEFAULT_CATEGORY_ID, handler);
+		return handler;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.mirea.newrav1k.transactionservice.service.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class RecordingStatementRowHandler implements StatementRowHandler {
+
+	final List<StatementRow> rows = new ArrayList<>();
+
+	final List<Long> malformedLines = new ArrayList<>();
+
+	@Override
+	public void handleRow(StatementRow row) {
+		this.rows.add(row);
+	}
+
+	@Override
+	public void handleMalformedRow(long line, String error) {
+		this.malformedLines.add(line);
+	}
+
+}
\ No newline at end of file